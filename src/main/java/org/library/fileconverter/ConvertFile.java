@@ -0,0 +1,93 @@
+package org.library.fileconverter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+import org.library.filegenerator.GenerateFile;
+import org.library.filegenerator.RowWriter;
+import org.library.filereader.ReadFile;
+import org.library.filereader.RowHandler;
+import org.library.utility.FileConfig;
+import org.library.utility.FileUtility;
+
+/**
+ * Utility class for converting files between the XLSX and CSV formats.
+ */
+public class ConvertFile {
+
+	public static final FileUtility fileUtility = new FileUtility();
+
+	private final ReadFile readFile;
+	private final GenerateFile generateFile;
+
+	public ConvertFile() {
+		this(FileConfig.DEFAULT);
+	}
+
+	/**
+	 * Creates a converter whose reader and generator share the given
+	 * configuration.
+	 *
+	 * @param fileConfig Configuration of the files read and generated.
+	 */
+	public ConvertFile(FileConfig fileConfig) {
+		this(new ReadFile(fileConfig), new GenerateFile(fileConfig));
+	}
+
+	/**
+	 * Creates a converter using the given reader and generator.
+	 *
+	 * @param readFile     Reader used to parse the input file.
+	 * @param generateFile Generator used to write the output file.
+	 */
+	public ConvertFile(ReadFile readFile, GenerateFile generateFile) {
+		this.readFile = readFile;
+		this.generateFile = generateFile;
+	}
+
+	/**
+	 * Converts a file by streaming every row read from the input directly into
+	 * the output, without collecting the rows in memory. Column headers go through
+	 * the same camel case round trip as reading and generating a file. If the
+	 * input cannot be read to the end, the output file is not finished; an XLSX
+	 * output then leaves the output stream untouched.
+	 *
+	 * @param inputFile    InputStream of the file to be converted.
+	 * @param inputName    Name of the input file including extension.
+	 * @param outputStream Stream the converted file is written to.
+	 * @param outputName   Name of the output file including extension.
+	 * @throws IOException If an I/O error occurs or a format is not supported.
+	 */
+	public void convert(InputStream inputFile, String inputName, OutputStream outputStream, String outputName)
+			throws IOException {
+		String inputType = fileUtility.getFileType(inputName);
+		if (!"xlsx".equalsIgnoreCase(inputType) && !"csv".equalsIgnoreCase(inputType)) {
+			throw new IOException("Only xlsx/csv file format is allowed");
+		}
+		RowWriter rowWriter = generateFile.openRowWriter(outputStream, outputName);
+		try {
+			readFile.readFileRows(inputFile, inputName, new RowHandler() {
+				@Override
+				public void header(List<String> header) throws IOException {
+					rowWriter.writeHeader(header);
+				}
+
+				@Override
+				public void row(Map<String, Object> row) throws IOException {
+					rowWriter.writeRow(row);
+				}
+			});
+		} catch (IOException | RuntimeException e) {
+			try {
+				rowWriter.abort();
+			} catch (IOException abortException) {
+				e.addSuppressed(abortException);
+			}
+			throw e;
+		}
+		rowWriter.close();
+	}
+}
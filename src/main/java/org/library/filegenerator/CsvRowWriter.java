@@ -0,0 +1,128 @@
+package org.library.filegenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.text.DecimalFormatSymbols;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.library.utility.FileConfig;
+
+/**
+ * Row writer printing CSV records directly to an output stream. Double and Date
+ * values, which XLSX formula cells are read as, are printed the way Excel
+ * displays them rather than with {@code toString()}.
+ */
+class CsvRowWriter implements RowWriter {
+
+	private static final String GENERAL_FORMAT = "General";
+	private static final int CUSTOM_FORMAT_INDEX = 164;
+
+	private final CSVPrinter csvPrinter;
+	private final DataFormatter formatter;
+	private final boolean plainDigits;
+
+	/**
+	 * Creates a CSV row writer.
+	 *
+	 * @param outputStream Stream the CSV file is written to.
+	 * @param fileConfig   Configuration holding the CSV format and output charset.
+	 * @throws IOException If the printer cannot be created.
+	 */
+	CsvRowWriter(OutputStream outputStream, FileConfig fileConfig) throws IOException {
+		this.csvPrinter = new CSVPrinter(new OutputStreamWriter(outputStream, fileConfig.getOutputCharset()),
+				fileConfig.getCsvFormat());
+		this.formatter = new DataFormatter(fileConfig.getLocale());
+		DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(fileConfig.getLocale());
+		this.plainDigits = symbols.getZeroDigit() == '0' && symbols.getMinusSign() == '-'
+				&& symbols.getDecimalSeparator() == '.';
+	}
+
+	@Override
+	public void writeHeader(List<String> header) throws IOException {
+		for (String column : header) {
+			csvPrinter.print(GenerateFile.formatColumnHeaderFromCamelCase(column));
+		}
+		csvPrinter.println();
+	}
+
+	@Override
+	public void writeRow(Map<String, Object> row) throws IOException {
+		for (Object value : row.values()) {
+			csvPrinter.print(formatValue(value));
+		}
+		csvPrinter.println();
+	}
+
+	@Override
+	public void close() throws IOException {
+		csvPrinter.flush();
+	}
+
+	/**
+	 * Formats a value the way Excel displays it. Doubles use the General number
+	 * format, like numeric cells without a format of their own. The cell style of
+	 * a date is not known here, so dates use the same formats the XLSX writer
+	 * applies: a date alone when there is no time of day, a date and time
+	 * otherwise.
+	 *
+	 * @param value Value to be printed.
+	 * @return Formatted text for doubles and dates, the value itself otherwise.
+	 */
+	private Object formatValue(Object value) {
+		if (value instanceof Double number) {
+			String text = plainDigits ? formatGeneralFast(number) : null;
+			return text != null ? text : formatter.formatRawCellContents(number, 0, GENERAL_FORMAT);
+		}
+		if (value instanceof Date date) {
+			double excelDate = DateUtil.getExcelDate(date);
+			String format = excelDate == Math.floor(excelDate) ? XlsxCellWriter.DATE_FORMAT
+					: XlsxCellWriter.DATE_TIME_FORMAT;
+			return formatter.formatRawCellContents(excelDate, CUSTOM_FORMAT_INDEX, format);
+		}
+		return value;
+	}
+
+	/**
+	 * Formats the common doubles whose General format text is the same as their
+	 * shortest decimal form, which is much cheaper to produce: whole numbers below
+	 * 10 digits, and plain decimals with at most 10 significant and 10 fraction
+	 * digits. Only valid for locales printing ASCII digits, minus sign and point.
+	 *
+	 * @param number Number to be formatted.
+	 * @return General format text, or null if the number needs the formatter.
+	 */
+	private static String formatGeneralFast(double number) {
+		double abs = Math.abs(number);
+		if (Math.floor(number) == number && abs < 1e10) {
+			return Long.toString((long) number);
+		}
+		if (abs < 1e-3 || abs >= 1e7) {
+			return null;
+		}
+		String text = Double.toString(number);
+		int start = number < 0 ? 1 : 0;
+		int fractionDigits = text.length() - text.indexOf('.') - 1;
+		int significantDigits = text.length() - start - 1;
+		for (int i = start; i < text.length() && (text.charAt(i) == '0' || text.charAt(i) == '.'); i++) {
+			if (text.charAt(i) == '0') {
+				significantDigits--;
+			}
+		}
+		return significantDigits <= 10 && fractionDigits <= 10 ? text : null;
+	}
+
+	/**
+	 * Drops the records still buffered by the printer without flushing them.
+	 * Records already flushed to the output stream remain there.
+	 */
+	@Override
+	public void abort() {
+		// Nothing to release: the printer only wraps the caller's stream
+	}
+}
@@ -3,6 +3,7 @@ package org.library.filegenerator;
 import java.beans.IntrospectionException;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
 import java.util.Map;
@@ -19,6 +20,7 @@ import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.library.mapper.MapDataObjects;
+import org.library.utility.FileConfig;
 import org.library.utility.FileUtility;
 
 import jakarta.servlet.ServletOutputStream;
@@ -34,6 +36,25 @@ public class GenerateFile extends MapDataObjects {
 	public static final String SPREADSHEET = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
 	public static final String TEXT_CSV = "text/csv";
 
+	private final FileConfig fileConfig;
+
+	/**
+	 * Creates a generator using the default configuration.
+	 */
+	public GenerateFile() {
+		this(FileConfig.DEFAULT);
+	}
+
+	/**
+	 * Creates a generator using the given configuration. The generator holds no
+	 * per-call state and can be shared between threads.
+	 *
+	 * @param fileConfig Configuration of the generated files.
+	 */
+	public GenerateFile(FileConfig fileConfig) {
+		this.fileConfig = fileConfig;
+	}
+
 	/**
 	 * Generates and serves the appropriate file format response based on input
 	 * data.
@@ -64,13 +85,34 @@ public class GenerateFile extends MapDataObjects {
 	}
 
 	/**
-	 * Generates an Excel Workbook containing data in XLSX format.
+	 * Opens a row writer that streams a file of the requested format to an output
+	 * stream one row at a time.
+	 *
+	 * @param outputStream Stream the generated file is written to.
+	 * @param fileName     Desired filename of the generated file.
+	 * @return Row writer for the file format of the filename.
+	 * @throws IOException If the file format is not supported.
+	 */
+	public RowWriter openRowWriter(OutputStream outputStream, String fileName) throws IOException {
+		String fileType = fileUtility.getFileType(fileName);
+		if ("xlsx".equalsIgnoreCase(fileType)) {
+			return new XlsxRowWriter(outputStream);
+		} else if ("csv".equalsIgnoreCase(fileType)) {
+			return new CsvRowWriter(outputStream, fileConfig);
+		} else {
+			throw new IOException("Only xlsx/csv file format is allowed");
+		}
+	}
+
+	/**
+	 * Generates an Excel Workbook containing data in XLSX format. Numbers,
+	 * booleans and dates are written as typed cells, everything else as text.
 	 *
 	 * @param data List of data to be written to the workbook.
 	 * @return Generated XSSFWorkbook.
 	 */
 	private Workbook generateXLSXWorkbook(List<Map<String, Object>> data) {
-		XSSFWorkbook xSSFWorkbook = new XSSFWorkbook();
+		XSSFWorkbook xSSFWorkbook = XlsxCellWriter.createWorkbook();
 		Sheet sheet = xSSFWorkbook.createSheet("Results");
 		Font headerFont = xSSFWorkbook.createFont();
 		headerFont.setBold(true);
@@ -86,13 +128,15 @@ public class GenerateFile extends MapDataObjects {
 			cell.setCellStyle(headerCellStyle);
 		}
 
+		XlsxCellWriter cellWriter = new XlsxCellWriter(xSSFWorkbook, fileConfig.getStringCacheSize(),
+				fileConfig.getInlineStringColumns());
 		int rowIndex = 1;
 		for (Map<String, Object> rowData : data) {
 			Row row = sheet.createRow(rowIndex++);
 			columnIndex = 0;
-			for (Object value : rowData.values()) {
+			for (Map.Entry<String, Object> entry : rowData.entrySet()) {
 				Cell cell = row.createCell(columnIndex++);
-				cell.setCellValue(value != null ? value.toString() : "");
+				cellWriter.writeCell(cell, entry.getKey(), entry.getValue());
 			}
 		}
 
@@ -165,7 +209,8 @@ public class GenerateFile extends MapDataObjects {
 			for (int i = 0; i < header.length; i++) {
 				header[i] = formatColumnHeaderFromCamelCase(header[i]);
 			}
-			CSVFormat csvFormat = CSVFormat.Builder.create().setHeader(header).setAllowMissingColumnNames(true).build();
+			CSVFormat csvFormat = fileConfig.getCsvFormat().builder().setHeader(header).setAllowMissingColumnNames(true)
+					.build();
 			try (CSVPrinter csvPrinter = new CSVPrinter(response.getWriter(), csvFormat)) {
 				for (Map<String, Object> rowData : data) {
 					csvPrinter.printRecord(rowData.values());
@@ -183,7 +228,7 @@ public class GenerateFile extends MapDataObjects {
 	 * @param columnHeader Original column header.
 	 * @return Formatted column header.
 	 */
-	private String formatColumnHeaderFromCamelCase(String columnHeader) {
+	static String formatColumnHeaderFromCamelCase(String columnHeader) {
 		return columnHeader.replaceAll("([a-z])([A-Z])", "$1 $2").replaceAll("[_-]+", " ").toUpperCase();
 	}
 
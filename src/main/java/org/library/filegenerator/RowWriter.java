@@ -0,0 +1,40 @@
+package org.library.filegenerator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the rows of a file one at a time, without holding previous rows in
+ * memory. Closing the writer finishes the file but leaves the underlying
+ * output stream open. A writer whose rows cannot all be produced is aborted
+ * instead of closed.
+ */
+public interface RowWriter extends Closeable {
+
+	/**
+	 * Writes the header row. Must be called once before any row is written.
+	 *
+	 * @param header List of camel case column keys.
+	 * @throws IOException If the header cannot be written.
+	 */
+	void writeHeader(List<String> header) throws IOException;
+
+	/**
+	 * Writes a single data row.
+	 *
+	 * @param row Map containing column keys and values.
+	 * @throws IOException If the row cannot be written.
+	 */
+	void writeRow(Map<String, Object> row) throws IOException;
+
+	/**
+	 * Releases the writer without finishing the file, for when writing failed
+	 * part way. Output already flushed to the stream cannot be taken back, but no
+	 * further bytes are written. Leaves the underlying output stream open.
+	 *
+	 * @throws IOException If the writer's resources cannot be released.
+	 */
+	void abort() throws IOException;
+}
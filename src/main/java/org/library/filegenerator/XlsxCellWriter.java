@@ -0,0 +1,244 @@
+package org.library.filegenerator;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+
+import org.apache.poi.ooxml.POIXMLDocumentPart;
+import org.apache.poi.ooxml.POIXMLRelation;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.model.SharedStringsTable;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.apache.poi.xssf.usermodel.XSSFFactory;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.xmlbeans.XmlCursor;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTCell;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTRst;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.STCellType;
+
+/**
+ * Writes typed cell values into a single workbook, reusing cell styles and
+ * shared string entries between cells.
+ */
+class XlsxCellWriter {
+
+	public static final String DATE_FORMAT = "yyyy-mm-dd";
+	public static final String DATE_TIME_FORMAT = "yyyy-mm-dd hh:mm:ss";
+
+	private static final int MAX_NUMERIC_DIGITS = 15;
+
+	private static final QName XML_SPACE = new QName("http://www.w3.org/XML/1998/namespace", "space");
+
+	/**
+	 * Shared strings table whose reference count can be increased for cells
+	 * pointing at a cached shared string index, which POI does not see.
+	 */
+	private static class CountingSharedStringsTable extends SharedStringsTable {
+
+		private void addReference() {
+			count++;
+		}
+	}
+
+	private final Workbook workbook;
+	private final DataFormat dataFormat;
+	private final Map<String, CellStyle> styleCache = new HashMap<>();
+	private final CountingSharedStringsTable sharedStrings;
+	private final Map<String, String> sharedStringCache;
+	private final Collection<String> inlineStringColumns;
+
+	/**
+	 * Creates a cell writer for the given workbook that writes strings the way
+	 * POI does, without caching or inline strings.
+	 *
+	 * @param workbook Workbook the cells belong to.
+	 */
+	XlsxCellWriter(Workbook workbook) {
+		this(workbook, 0, Collections.emptySet());
+	}
+
+	/**
+	 * Creates a cell writer for the given workbook. Shared string indexes are only
+	 * cached for workbooks created by {@link #createWorkbook()}, and inline
+	 * strings only apply to {@link XSSFCell}s.
+	 *
+	 * @param workbook            Workbook the cells belong to.
+	 * @param stringCacheSize     Maximum number of distinct strings whose shared
+	 *                            string index is remembered.
+	 * @param inlineStringColumns Column keys whose string values are written as
+	 *                            inline strings.
+	 */
+	XlsxCellWriter(Workbook workbook, int stringCacheSize, Collection<String> inlineStringColumns) {
+		this.workbook = workbook;
+		this.dataFormat = workbook.createDataFormat();
+		this.sharedStrings = workbook instanceof XSSFWorkbook xssfWorkbook
+				&& xssfWorkbook.getSharedStringSource() instanceof CountingSharedStringsTable counting ? counting
+						: null;
+		this.sharedStringCache = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+				return size() > stringCacheSize;
+			}
+		};
+		this.inlineStringColumns = inlineStringColumns != null ? inlineStringColumns : Collections.emptySet();
+	}
+
+	/**
+	 * Creates a workbook whose shared strings table keeps its reference count
+	 * correct when cells are written from cached shared string indexes.
+	 *
+	 * @return New empty workbook.
+	 */
+	static XSSFWorkbook createWorkbook() {
+		return new XSSFWorkbook(new XSSFFactory() {
+			@Override
+			public POIXMLDocumentPart newDocumentPart(POIXMLRelation descriptor) {
+				if (descriptor == XSSFRelation.SHARED_STRINGS) {
+					return new CountingSharedStringsTable();
+				}
+				return super.newDocumentPart(descriptor);
+			}
+		});
+	}
+
+	/**
+	 * Writes a value to a cell using the cell type matching the value's Java type.
+	 * Numbers that a numeric cell cannot hold exactly are written as text.
+	 *
+	 * @param cell   Cell to be written.
+	 * @param column Column key the value belongs to.
+	 * @param value  Value to be written.
+	 */
+	void writeCell(Cell cell, String column, Object value) {
+		if (value == null) {
+			cell.setBlank();
+		} else if (value instanceof Number number && isExactDouble(number)) {
+			cell.setCellValue(number.doubleValue());
+		} else if (value instanceof Boolean bool) {
+			cell.setCellValue(bool);
+		} else if (value instanceof Date date) {
+			cell.setCellValue(date);
+			cell.setCellStyle(getStyle(DATE_TIME_FORMAT));
+		} else if (value instanceof Calendar calendar) {
+			cell.setCellValue(calendar);
+			cell.setCellStyle(getStyle(DATE_TIME_FORMAT));
+		} else if (value instanceof LocalDateTime dateTime) {
+			cell.setCellValue(dateTime);
+			cell.setCellStyle(getStyle(DATE_TIME_FORMAT));
+		} else if (value instanceof LocalDate date) {
+			cell.setCellValue(date);
+			cell.setCellStyle(getStyle(DATE_FORMAT));
+		} else {
+			writeString(cell, column, value.toString());
+		}
+	}
+
+	/**
+	 * Checks whether a number can be stored in a numeric cell without losing
+	 * digits. Excel keeps 15 significant digits, so long, big integer and big
+	 * decimal values with more digits, or that a double cannot represent, are
+	 * kept as text instead.
+	 *
+	 * @param number Number to be checked.
+	 * @return True if a numeric cell holds the exact value.
+	 */
+	private static boolean isExactDouble(Number number) {
+		BigDecimal exact;
+		if (number instanceof BigDecimal decimal) {
+			exact = decimal;
+		} else if (number instanceof BigInteger integer) {
+			exact = new BigDecimal(integer);
+		} else if (number instanceof Long longValue) {
+			exact = BigDecimal.valueOf(longValue);
+		} else {
+			return true;
+		}
+		double doubleValue = exact.doubleValue();
+		return Double.isFinite(doubleValue) && exact.stripTrailingZeros().precision() <= MAX_NUMERIC_DIGITS
+				&& BigDecimal.valueOf(doubleValue).compareTo(exact) == 0;
+	}
+
+	/**
+	 * Returns the cell style for a data format, creating it on first use. Styles
+	 * are shared by every cell with the same format since a workbook can only
+	 * hold a limited number of them.
+	 *
+	 * @param format Excel data format string.
+	 * @return Cell style applying the data format.
+	 */
+	CellStyle getStyle(String format) {
+		return styleCache.computeIfAbsent(format, key -> {
+			CellStyle style = workbook.createCellStyle();
+			style.setDataFormat(dataFormat.getFormat(key));
+			return style;
+		});
+	}
+
+	/**
+	 * Writes a string value either inline or through the shared strings table.
+	 * Cached shared string indexes skip the lookup POI performs for each cell, and
+	 * only add a reference to the table.
+	 *
+	 * @param cell   Cell to be written.
+	 * @param column Column key the value belongs to.
+	 * @param value  String value to be written.
+	 */
+	private void writeString(Cell cell, String column, String value) {
+		if (!(cell instanceof XSSFCell xssfCell)) {
+			cell.setCellValue(value);
+			return;
+		}
+		CTCell ctCell = xssfCell.getCTCell();
+		if (inlineStringColumns.contains(column)) {
+			ctCell.setT(STCellType.INLINE_STR);
+			CTRst inlineString = ctCell.addNewIs();
+			inlineString.setT(value);
+			if (hasOuterWhitespace(value)) {
+				try (XmlCursor cursor = inlineString.xgetT().newCursor()) {
+					cursor.toNextToken();
+					cursor.insertAttributeWithValue(XML_SPACE, "preserve");
+				}
+			}
+			return;
+		}
+		String index = sharedStrings != null ? sharedStringCache.get(value) : null;
+		if (index == null) {
+			cell.setCellValue(value);
+			if (sharedStrings != null) {
+				sharedStringCache.put(value, ctCell.getV());
+			}
+		} else {
+			ctCell.setT(STCellType.S);
+			ctCell.setV(index);
+			sharedStrings.addReference();
+		}
+	}
+
+	/**
+	 * Checks whether a string starts or ends with whitespace, which XML parsers
+	 * trim unless the element preserves spaces.
+	 *
+	 * @param value String value to be checked.
+	 * @return True if the first or last character is whitespace.
+	 */
+	private static boolean hasOuterWhitespace(String value) {
+		return !value.isEmpty()
+				&& (Character.isWhitespace(value.charAt(0)) || Character.isWhitespace(value.charAt(value.length() - 1)));
+	}
+}
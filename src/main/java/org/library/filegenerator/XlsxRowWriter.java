@@ -0,0 +1,87 @@
+package org.library.filegenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Row writer building an XLSX file with a streaming workbook, which keeps only
+ * a small window of rows in memory and flushes the rest to a temporary file.
+ * Columns are not auto-sized. Streamed cells are not XSSF cells, so the shared
+ * string cache and inline string columns of the configuration do not apply.
+ */
+class XlsxRowWriter implements RowWriter {
+
+	public static final int ROW_WINDOW_SIZE = 100;
+
+	private final OutputStream outputStream;
+	private final SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW_SIZE);
+	private final Sheet sheet = workbook.createSheet("Results");
+	private final XlsxCellWriter cellWriter;
+	private int rowIndex;
+
+	/**
+	 * Creates an XLSX row writer.
+	 *
+	 * @param outputStream Stream the XLSX file is written to on close.
+	 */
+	XlsxRowWriter(OutputStream outputStream) {
+		this.outputStream = outputStream;
+		this.cellWriter = new XlsxCellWriter(workbook);
+	}
+
+	@Override
+	public void writeHeader(List<String> header) {
+		Font headerFont = workbook.createFont();
+		headerFont.setBold(true);
+		CellStyle headerCellStyle = workbook.createCellStyle();
+		headerCellStyle.setFont(headerFont);
+
+		Row headerRow = sheet.createRow(rowIndex++);
+		int columnIndex = 0;
+		for (String column : header) {
+			Cell cell = headerRow.createCell(columnIndex++);
+			cell.setCellValue(GenerateFile.formatColumnHeaderFromCamelCase(column));
+			cell.setCellStyle(headerCellStyle);
+		}
+	}
+
+	@Override
+	public void writeRow(Map<String, Object> row) {
+		Row sheetRow = sheet.createRow(rowIndex++);
+		int columnIndex = 0;
+		for (Map.Entry<String, Object> entry : row.entrySet()) {
+			Cell cell = sheetRow.createCell(columnIndex++);
+			cellWriter.writeCell(cell, entry.getKey(), entry.getValue());
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			workbook.write(outputStream);
+			outputStream.flush();
+		} finally {
+			workbook.dispose();
+			workbook.close();
+		}
+	}
+
+	/**
+	 * Discards the rows written so far. Nothing reaches the output stream, since
+	 * the file is only written to it on close.
+	 */
+	@Override
+	public void abort() throws IOException {
+		workbook.dispose();
+		workbook.close();
+	}
+}
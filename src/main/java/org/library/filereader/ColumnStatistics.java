@@ -0,0 +1,253 @@
+package org.library.filereader;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.library.utility.HyperLogLog;
+
+/**
+ * Statistics of a single column: inferred type, null count, min and max,
+ * estimated distinct count and maximum length. The memory used does not grow
+ * with the number of values.
+ */
+public class ColumnStatistics {
+
+	private static final int BOOLEAN = 1;
+	private static final int INTEGER = 1 << 1;
+	private static final int DECIMAL = 1 << 2;
+	private static final int DATE = 1 << 3;
+
+	private static final Pattern NUMBER = Pattern.compile("[+-]?(\\d+\\.?\\d*|\\.\\d+)([eE][+-]?\\d+)?");
+	private static final List<DateTimeFormatter> DATE_FORMATS = List.of(DateTimeFormatter.ISO_LOCAL_DATE,
+			DateTimeFormatter.ofPattern("M/d/yy"), DateTimeFormatter.ofPattern("M/d/yyyy"));
+	private static final List<DateTimeFormatter> DATE_TIME_FORMATS = List.of(DateTimeFormatter.ISO_LOCAL_DATE_TIME,
+			DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+
+	private final HyperLogLog distinctValues = new HyperLogLog();
+	private int candidateTypes = BOOLEAN | INTEGER | DECIMAL | DATE;
+	private long count;
+	private long nullCount;
+	private int maxLength;
+	private double numberMin = Double.POSITIVE_INFINITY;
+	private double numberMax = Double.NEGATIVE_INFINITY;
+	private LocalDateTime dateMin;
+	private LocalDateTime dateMax;
+	private String textMin;
+	private String textMax;
+
+	/**
+	 * Adds a cell value to the statistics.
+	 *
+	 * @param value Cell value, null or empty for a missing value.
+	 */
+	void accept(Object value) {
+		count++;
+		String text = value != null ? value.toString() : "";
+		if (text.isEmpty()) {
+			nullCount++;
+			return;
+		}
+		distinctValues.add(text);
+		maxLength = Math.max(maxLength, text.length());
+		if (textMin == null || text.compareTo(textMin) < 0) {
+			textMin = text;
+		}
+		if (textMax == null || text.compareTo(textMax) > 0) {
+			textMax = text;
+		}
+		if (value instanceof Date date) {
+			candidateTypes &= DATE;
+			acceptDate(LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()));
+		} else if (value instanceof Boolean) {
+			candidateTypes &= BOOLEAN;
+		} else if (value instanceof Number number) {
+			candidateTypes &= number.doubleValue() == Math.rint(number.doubleValue()) ? INTEGER | DECIMAL : DECIMAL;
+			acceptNumber(number.doubleValue());
+		} else {
+			inferFromText(text);
+		}
+	}
+
+	/**
+	 * Narrows the candidate types to the ones the text can be parsed as. Only the
+	 * types still possible for the column are tried.
+	 *
+	 * @param text Non-empty cell text.
+	 */
+	private void inferFromText(String text) {
+		if ((candidateTypes & BOOLEAN) != 0 && !"true".equalsIgnoreCase(text) && !"false".equalsIgnoreCase(text)) {
+			candidateTypes &= ~BOOLEAN;
+		}
+		if ((candidateTypes & (INTEGER | DECIMAL)) != 0) {
+			Double number = parseNumber(text);
+			if (number == null) {
+				candidateTypes &= ~(INTEGER | DECIMAL);
+			} else {
+				if (!isInteger(text)) {
+					candidateTypes &= ~INTEGER;
+				}
+				acceptNumber(number);
+			}
+		}
+		if ((candidateTypes & DATE) != 0) {
+			LocalDateTime date = parseDate(text);
+			if (date == null) {
+				candidateTypes &= ~DATE;
+			} else {
+				acceptDate(date);
+			}
+		}
+	}
+
+	private void acceptNumber(double number) {
+		numberMin = Math.min(numberMin, number);
+		numberMax = Math.max(numberMax, number);
+	}
+
+	private void acceptDate(LocalDateTime date) {
+		if (dateMin == null || date.isBefore(dateMin)) {
+			dateMin = date;
+		}
+		if (dateMax == null || date.isAfter(dateMax)) {
+			dateMax = date;
+		}
+	}
+
+	private static boolean isInteger(String text) {
+		int start = text.charAt(0) == '-' || text.charAt(0) == '+' ? 1 : 0;
+		if (start == text.length()) {
+			return false;
+		}
+		for (int i = start; i < text.length(); i++) {
+			if (!Character.isDigit(text.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Parses plain decimal numbers with an optional exponent. Java-only forms
+	 * accepted by {@link Double#parseDouble}, such as {@code 5f}, {@code 0x1p3}
+	 * or {@code Infinity}, are not numbers in a data file.
+	 */
+	private static Double parseNumber(String text) {
+		if (!NUMBER.matcher(text).matches()) {
+			return null;
+		}
+		double number = Double.parseDouble(text);
+		return Double.isFinite(number) ? number : null;
+	}
+
+	private static LocalDateTime parseDate(String text) {
+		for (DateTimeFormatter format : DATE_FORMATS) {
+			TemporalAccessor parsed = tryParse(format, text);
+			if (parsed != null) {
+				return LocalDate.from(parsed).atStartOfDay();
+			}
+		}
+		for (DateTimeFormatter format : DATE_TIME_FORMATS) {
+			TemporalAccessor parsed = tryParse(format, text);
+			if (parsed != null) {
+				return LocalDateTime.from(parsed);
+			}
+		}
+		return null;
+	}
+
+	private static TemporalAccessor tryParse(DateTimeFormatter format, String text) {
+		try {
+			return format.parse(text);
+		} catch (DateTimeParseException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return Type all non-empty values of the column can be read as.
+	 */
+	public ColumnType getType() {
+		if (count == nullCount) {
+			return ColumnType.EMPTY;
+		} else if ((candidateTypes & BOOLEAN) != 0) {
+			return ColumnType.BOOLEAN;
+		} else if ((candidateTypes & INTEGER) != 0) {
+			return ColumnType.INTEGER;
+		} else if ((candidateTypes & DECIMAL) != 0) {
+			return ColumnType.DECIMAL;
+		} else if ((candidateTypes & DATE) != 0) {
+			return ColumnType.DATE;
+		}
+		return ColumnType.STRING;
+	}
+
+	/**
+	 * @return Number of values read, including empty ones.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return Number of empty values.
+	 */
+	public long getNullCount() {
+		return nullCount;
+	}
+
+	/**
+	 * @return Length of the longest value.
+	 */
+	public int getMaxLength() {
+		return maxLength;
+	}
+
+	/**
+	 * @return Estimated number of distinct non-empty values.
+	 */
+	public long getDistinctCount() {
+		return distinctValues.estimate();
+	}
+
+	/**
+	 * Returns the smallest value, compared according to the inferred type.
+	 *
+	 * @return Long, Double, LocalDateTime or String minimum, or null for an empty
+	 *         column.
+	 */
+	public Object getMin() {
+		return typedValue(numberMin, dateMin, textMin);
+	}
+
+	/**
+	 * Returns the largest value, compared according to the inferred type.
+	 *
+	 * @return Long, Double, LocalDateTime or String maximum, or null for an empty
+	 *         column.
+	 */
+	public Object getMax() {
+		return typedValue(numberMax, dateMax, textMax);
+	}
+
+	private Object typedValue(double number, LocalDateTime date, String text) {
+		switch (getType()) {
+		case EMPTY:
+			return null;
+		case INTEGER:
+			return (long) number;
+		case DECIMAL:
+			return number;
+		case DATE:
+			return date;
+		default:
+			return text;
+		}
+	}
+}
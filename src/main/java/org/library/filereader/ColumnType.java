@@ -0,0 +1,8 @@
+package org.library.filereader;
+
+/**
+ * Data type inferred for a column from the values read from a file.
+ */
+public enum ColumnType {
+	EMPTY, BOOLEAN, INTEGER, DECIMAL, DATE, STRING
+}
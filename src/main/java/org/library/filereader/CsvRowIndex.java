@@ -0,0 +1,330 @@
+package org.library.filereader;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.commons.csv.CSVFormat;
+
+/**
+ * Sidecar index holding the byte offset of every record of a CSV file, stored
+ * next to the file as {@code <file>.idx}. The index records the size and last
+ * modification time of the CSV file it was built from, and the delimiter and
+ * quote it was built with, and is rebuilt when any of them no longer matches.
+ * Offsets are read with positional reads, so opening the index does not load it
+ * into memory.
+ *
+ * <p>
+ * Record boundaries are found by scanning bytes for line breaks outside quoted
+ * fields. Like the CSV parser, a quote only opens a quoted field at the start of
+ * a field, and is literal text anywhere else in an unquoted field. The scan only
+ * works for formats and charsets accepted by {@link #checkSupported}. Empty
+ * lines are skipped the same way the parser skips them.
+ */
+class CsvRowIndex implements Closeable {
+
+	private static final long MAGIC = 0x4353565258494458L;
+	private static final int VERSION = 2;
+	private static final int HEADER_SIZE = Long.BYTES + Integer.BYTES + 2 * Long.BYTES + 2 * Integer.BYTES
+			+ Long.BYTES;
+	private static final int RECORD_COUNT_POSITION = HEADER_SIZE - Long.BYTES;
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int NO_QUOTE = -1;
+
+	private final FileChannel indexChannel;
+	private final long fileSize;
+	private final long recordCount;
+
+	private CsvRowIndex(FileChannel indexChannel, long fileSize, long recordCount) {
+		this.indexChannel = indexChannel;
+		this.fileSize = fileSize;
+		this.recordCount = recordCount;
+	}
+
+	/**
+	 * Checks that record boundaries of files in the given format and charset can
+	 * be found by scanning bytes. The delimiter, quote and line breaks must each be
+	 * a single ASCII byte that cannot appear inside another character, and the
+	 * format must not use escapes, comments, a predefined header, surrounding
+	 * space trimming or empty line records, which change where records start.
+	 *
+	 * @param csvFormat CSV format the file is parsed with.
+	 * @param charset   Charset of the file.
+	 * @throws IOException If the format or charset is not supported.
+	 */
+	static void checkSupported(CSVFormat csvFormat, Charset charset) throws IOException {
+		String delimiter = csvFormat.getDelimiterString();
+		if (delimiter.length() != 1) {
+			throw new IOException("Range reads need a single character CSV delimiter");
+		}
+		if (csvFormat.getEscapeCharacter() != null || csvFormat.getCommentMarker() != null
+				|| csvFormat.getHeader() != null || csvFormat.getIgnoreSurroundingSpaces()
+				|| !csvFormat.getIgnoreEmptyLines()) {
+			throw new IOException("Range reads are not supported for CSV formats with escapes, comments, "
+					+ "a header, surrounding space trimming or empty line records");
+		}
+		if (!StandardCharsets.UTF_8.equals(charset) && charset.newEncoder().maxBytesPerChar() > 1) {
+			throw new IOException("Range reads are not supported for the " + charset.name() + " charset");
+		}
+		String special = delimiter + (csvFormat.getQuoteCharacter() != null ? csvFormat.getQuoteCharacter() : "")
+				+ "\r\n";
+		for (char c : special.toCharArray()) {
+			if (c > 0x7F || !encodesAsByte(charset, c)) {
+				throw new IOException("Range reads need the CSV delimiter, quote and line breaks to be single "
+						+ "ASCII bytes in the " + charset.name() + " charset");
+			}
+		}
+	}
+
+	/**
+	 * Checks whether a charset encodes a character as the single byte of the same
+	 * value.
+	 */
+	private static boolean encodesAsByte(Charset charset, char c) {
+		try {
+			ByteBuffer encoded = charset.newEncoder().encode(CharBuffer.wrap(new char[] { c }));
+			return encoded.remaining() == 1 && encoded.get() == c;
+		} catch (CharacterCodingException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Opens the index of a CSV file, building it first if it is missing or stale.
+	 *
+	 * @param csvFile   Path of the CSV file.
+	 * @param csvFormat CSV format the file is parsed with, already accepted by
+	 *                  {@link #checkSupported}.
+	 * @return Open index of the file.
+	 * @throws IOException If the index cannot be read or written.
+	 */
+	static CsvRowIndex open(Path csvFile, CSVFormat csvFormat) throws IOException {
+		Path indexFile = indexPath(csvFile);
+		long fileSize = Files.size(csvFile);
+		long lastModified = Files.getLastModifiedTime(csvFile).toMillis();
+		int delimiter = csvFormat.getDelimiterString().charAt(0);
+		int quote = csvFormat.getQuoteCharacter() != null ? csvFormat.getQuoteCharacter() : NO_QUOTE;
+		if (Files.exists(indexFile)) {
+			CsvRowIndex index = openIfCurrent(indexFile, fileSize, lastModified, delimiter, quote);
+			if (index != null) {
+				return index;
+			}
+		}
+		build(csvFile, indexFile, fileSize, lastModified, delimiter, quote);
+		CsvRowIndex index = openIfCurrent(indexFile, fileSize, lastModified, delimiter, quote);
+		if (index == null) {
+			throw new IOException("Unable to open CSV index " + indexFile);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the path of the sidecar index of a CSV file.
+	 *
+	 * @param csvFile Path of the CSV file.
+	 * @return Path of the index file.
+	 */
+	static Path indexPath(Path csvFile) {
+		return csvFile.resolveSibling(csvFile.getFileName() + ".idx");
+	}
+
+	/**
+	 * @return Number of records in the file, including the header record.
+	 */
+	long getRecordCount() {
+		return recordCount;
+	}
+
+	/**
+	 * Returns the byte offset at which a record starts.
+	 *
+	 * @param record Index of the record, 0 being the header record.
+	 * @return Byte offset of the record, or the file size past the last record.
+	 * @throws IOException If the index cannot be read.
+	 */
+	long getOffset(long record) throws IOException {
+		if (record >= recordCount) {
+			return fileSize;
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+		readFully(indexChannel, buffer, HEADER_SIZE + record * Long.BYTES);
+		return buffer.flip().getLong();
+	}
+
+	@Override
+	public void close() throws IOException {
+		indexChannel.close();
+	}
+
+	/**
+	 * Opens an index file if it is valid for the given CSV file size, modification
+	 * time, delimiter and quote.
+	 */
+	private static CsvRowIndex openIfCurrent(Path indexFile, long fileSize, long lastModified, int delimiter,
+			int quote) throws IOException {
+		FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			if (channel.size() >= HEADER_SIZE) {
+				readFully(channel, header, 0);
+				header.flip();
+				if (header.getLong() == MAGIC && header.getInt() == VERSION && header.getLong() == fileSize
+						&& header.getLong() == lastModified && header.getInt() == delimiter
+						&& header.getInt() == quote) {
+					long recordCount = header.getLong();
+					if (channel.size() == HEADER_SIZE + recordCount * Long.BYTES) {
+						return new CsvRowIndex(channel, fileSize, recordCount);
+					}
+				}
+			}
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+		channel.close();
+		return null;
+	}
+
+	/**
+	 * Scans a CSV file once and writes the offset of every record to its index.
+	 * The index is written to a temporary file first and moved into place, so
+	 * readers never see a partially written index.
+	 */
+	private static void build(Path csvFile, Path indexFile, long fileSize, long lastModified, int delimiter,
+			int quote) throws IOException {
+		Path tempFile = Files.createTempFile(indexFile.toAbsolutePath().getParent(),
+				indexFile.getFileName().toString(), ".tmp");
+		try {
+			long recordCount = 0;
+			try (FileChannel csvChannel = FileChannel.open(csvFile, StandardOpenOption.READ);
+					DataOutputStream out = new DataOutputStream(
+							new BufferedOutputStream(Files.newOutputStream(tempFile), BUFFER_SIZE))) {
+				out.writeLong(MAGIC);
+				out.writeInt(VERSION);
+				out.writeLong(fileSize);
+				out.writeLong(lastModified);
+				out.writeInt(delimiter);
+				out.writeInt(quote);
+				out.writeLong(0);
+
+				ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+				boolean inQuotes = false;
+				boolean afterQuote = false;
+				boolean fieldStart = true;
+				boolean emptyRecord = true;
+				long recordStart = 0;
+				long position = 0;
+				while (position < fileSize && csvChannel.read(buffer, position) > 0) {
+					buffer.flip();
+					while (buffer.hasRemaining()) {
+						int b = buffer.get() & 0xFF;
+						if (inQuotes) {
+							// A quote ends the field unless the next byte is a quote too
+							if (b == quote) {
+								inQuotes = false;
+								afterQuote = true;
+							}
+						} else if (b == quote && (fieldStart || afterQuote)) {
+							inQuotes = true;
+							afterQuote = false;
+							fieldStart = false;
+							emptyRecord = false;
+						} else if (b == '\n' || b == '\r') {
+							if (!emptyRecord) {
+								out.writeLong(recordStart);
+								recordCount++;
+							}
+							recordStart = position + 1;
+							emptyRecord = true;
+							fieldStart = true;
+							afterQuote = false;
+						} else {
+							fieldStart = b == delimiter;
+							afterQuote = false;
+							emptyRecord = false;
+						}
+						position++;
+					}
+					buffer.clear();
+				}
+				if (!emptyRecord) {
+					out.writeLong(recordStart);
+					recordCount++;
+				}
+			}
+			try (FileChannel indexChannel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+				ByteBuffer count = ByteBuffer.allocate(Long.BYTES).putLong(recordCount).flip();
+				while (count.hasRemaining()) {
+					indexChannel.write(count, RECORD_COUNT_POSITION + (long) count.position());
+				}
+			}
+			Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+
+	/**
+	 * Returns a stream over a byte range of a file, read with positional reads so
+	 * that the position of the channel is left unchanged. Closing the stream does
+	 * not close the channel.
+	 *
+	 * @param channel Channel of the file.
+	 * @param start   Offset of the first byte of the range.
+	 * @param end     Offset just past the last byte of the range.
+	 * @return Stream over the range.
+	 */
+	static InputStream openRange(FileChannel channel, long start, long end) {
+		return new InputStream() {
+			private long position = start;
+
+			@Override
+			public int read() throws IOException {
+				byte[] single = new byte[1];
+				return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+			}
+
+			@Override
+			public int read(byte[] bytes, int offset, int length) throws IOException {
+				if (position >= end) {
+					return -1;
+				}
+				int read = channel.read(ByteBuffer.wrap(bytes, offset, (int) Math.min(length, end - position)),
+						position);
+				if (read > 0) {
+					position += read;
+				}
+				return read;
+			}
+		};
+	}
+
+	/**
+	 * Fills a buffer with a positional read starting at the given file position.
+	 *
+	 * @param channel  Channel to read from.
+	 * @param buffer   Buffer to fill.
+	 * @param position File position of the first byte to read.
+	 * @throws IOException If the end of the file is reached first.
+	 */
+	static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position + buffer.position());
+			if (read < 0) {
+				throw new IOException("Unexpected end of file at position " + (position + buffer.position()));
+			}
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package org.library.filereader;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Statistics of the columns of a file, collected while its rows are read.
+ */
+public class FileProfile {
+
+	private final Map<String, ColumnStatistics> columns = new LinkedHashMap<>();
+	private long rowCount;
+
+	/**
+	 * Adds the values of a row to the statistics of their columns.
+	 *
+	 * @param row Map containing column names and cell values.
+	 */
+	void accept(Map<String, Object> row) {
+		rowCount++;
+		for (Map.Entry<String, Object> entry : row.entrySet()) {
+			columns.computeIfAbsent(entry.getKey(), key -> new ColumnStatistics()).accept(entry.getValue());
+		}
+	}
+
+	/**
+	 * @return Number of rows read.
+	 */
+	public long getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * @return Statistics by column name, in column order.
+	 */
+	public Map<String, ColumnStatistics> getColumns() {
+		return Collections.unmodifiableMap(columns);
+	}
+
+	/**
+	 * Returns the statistics of a column.
+	 *
+	 * @param column Camel case column name.
+	 * @return Statistics of the column, or null if no such column was read.
+	 */
+	public ColumnStatistics getColumn(String column) {
+		return columns.get(column);
+	}
+}
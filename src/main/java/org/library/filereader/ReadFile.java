@@ -5,19 +5,31 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
 import java.util.stream.IntStream;
 import java.util.stream.StreamSupport;
 
-import org.apache.commons.csv.CSVFormat;
+import javax.xml.parsers.ParserConfigurationException;
+
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.ss.formula.eval.ErrorEval;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
@@ -26,8 +38,16 @@ import org.apache.poi.ss.usermodel.DateUtil;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.library.utility.FileConfig;
 import org.library.utility.FileUtility;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
 
 /**
  * Utility class for reading various file formats and converting data to a list
@@ -38,6 +58,31 @@ public class ReadFile {
 
 	public static final FileUtility fileUtility = new FileUtility();
 
+	private static final DefaultHandler NO_CONTENT = new DefaultHandler();
+
+	private final FileConfig fileConfig;
+	private final ThreadLocal<DataFormatter> formatters;
+	private final ThreadLocal<XMLReader> sheetParsers = new ThreadLocal<>();
+
+	/**
+	 * Creates a reader using the default configuration.
+	 */
+	public ReadFile() {
+		this(FileConfig.DEFAULT);
+	}
+
+	/**
+	 * Creates a reader using the given configuration. The reader can be shared
+	 * between threads; each thread reuses its own cell formatter and XML parser
+	 * across calls.
+	 *
+	 * @param fileConfig Configuration of the files read.
+	 */
+	public ReadFile(FileConfig fileConfig) {
+		this.fileConfig = fileConfig;
+		this.formatters = ThreadLocal.withInitial(() -> new DataFormatter(fileConfig.getLocale()));
+	}
+
 	/**
 	 * Reads data from an input stream and returns it as a list of map objects.
 	 *
@@ -48,13 +93,87 @@ public class ReadFile {
 	 */
 
 	public List<Map<String, Object>> readFileAsList(InputStream inputFile, String fileName) throws IOException {
+		return readFileAsList(inputFile, fileName, new ReadOptions());
+	}
+
+	/**
+	 * Reads the projected columns of the rows accepted by the read options from an
+	 * input stream and returns them as a list of map objects.
+	 *
+	 * @param inputFile   InputStream of the file to be read.
+	 * @param fileName    Name of the file including extension.
+	 * @param readOptions Column projection and row filter to apply.
+	 * @return List of map objects containing the read data.
+	 * @throws IOException If an I/O error occurs.
+	 */
+
+	public List<Map<String, Object>> readFileAsList(InputStream inputFile, String fileName, ReadOptions readOptions)
+			throws IOException {
 		String fileType = fileUtility.getFileType(fileName);
 		if ("xlsx".equalsIgnoreCase(fileType)) {
 			try (XSSFWorkbook workbook = new XSSFWorkbook(inputFile)) {
-				return readWorkbook(workbook);
+				return readWorkbook(workbook, readOptions);
 			}
 		} else if ("csv".equalsIgnoreCase(fileType)) {
-			return readCsvFile(inputFile);
+			return readCsvFile(inputFile, readOptions);
+		} else {
+			throw new IOException("Only xlsx/csv file format is allowed");
+		}
+	}
+
+	/**
+	 * Reads data from an input stream and returns it together with the statistics
+	 * of its columns, collected in the same pass.
+	 *
+	 * @param inputFile   InputStream of the file to be read.
+	 * @param fileName    Name of the file including extension.
+	 * @param readOptions Column projection and row filter to apply.
+	 * @return Rows read from the file and the profile of their columns.
+	 * @throws IOException If an I/O error occurs.
+	 */
+
+	public ReadResult readFileWithProfile(InputStream inputFile, String fileName, ReadOptions readOptions)
+			throws IOException {
+		FileProfile profile = new FileProfile();
+		List<Map<String, Object>> rows = readFileAsList(inputFile, fileName, readOptions.withProfile(profile));
+		return new ReadResult(rows, profile);
+	}
+
+	/**
+	 * Reads data from an input stream and passes it to a row handler one row at a
+	 * time, without collecting the rows in memory. XLSX files are parsed as a
+	 * stream of sheet events instead of being loaded as a workbook.
+	 *
+	 * @param inputFile  InputStream of the file to be read.
+	 * @param fileName   Name of the file including extension.
+	 * @param rowHandler Handler receiving the header and rows of the file.
+	 * @throws IOException If an I/O error occurs.
+	 */
+
+	public void readFileRows(InputStream inputFile, String fileName, RowHandler rowHandler) throws IOException {
+		readFileRows(inputFile, fileName, new ReadOptions(), rowHandler);
+	}
+
+	/**
+	 * Reads the projected columns of the rows accepted by the read options from an
+	 * input stream and passes them to a row handler one row at a time. Cells of
+	 * XLSX columns outside the projection are not decoded unless the row filter
+	 * asks for them.
+	 *
+	 * @param inputFile   InputStream of the file to be read.
+	 * @param fileName    Name of the file including extension.
+	 * @param readOptions Column projection and row filter to apply.
+	 * @param rowHandler  Handler receiving the header and rows of the file.
+	 * @throws IOException If an I/O error occurs.
+	 */
+
+	public void readFileRows(InputStream inputFile, String fileName, ReadOptions readOptions, RowHandler rowHandler)
+			throws IOException {
+		String fileType = fileUtility.getFileType(fileName);
+		if ("xlsx".equalsIgnoreCase(fileType)) {
+			readXlsxRows(inputFile, readOptions, rowHandler);
+		} else if ("csv".equalsIgnoreCase(fileType)) {
+			readCsvRows(inputFile, readOptions, rowHandler);
 		} else {
 			throw new IOException("Only xlsx/csv file format is allowed");
 		}
@@ -69,40 +188,128 @@ public class ReadFile {
 	 */
 
 	public List<Map<String, Object>> readFileFromPath(String path) throws IOException {
+		return readFileFromPath(path, new ReadOptions());
+	}
+
+	/**
+	 * Reads the projected columns of the rows accepted by the read options from a
+	 * file path and returns them as a list of map objects.
+	 *
+	 * @param path        Path to the file.
+	 * @param readOptions Column projection and row filter to apply.
+	 * @return List of map objects containing the read data.
+	 * @throws IOException If an I/O error occurs.
+	 */
+
+	public List<Map<String, Object>> readFileFromPath(String path, ReadOptions readOptions) throws IOException {
 		File file = new File(path);
 		try (FileInputStream fis = new FileInputStream(file)) {
 			String fileType = fileUtility.getFileType(file.getName());
 			if ("xlsx".equalsIgnoreCase(fileType)) {
 				try (XSSFWorkbook workbook = new XSSFWorkbook(fis)) {
-					return readWorkbook(workbook);
+					return readWorkbook(workbook, readOptions);
 				}
 			} else if ("csv".equalsIgnoreCase(fileType)) {
-				return readCsvFile(fis);
+				return readCsvFile(fis, readOptions);
 			} else {
 				throw new IOException("Only xlsx/csv file format is allowed");
 			}
 		}
 	}
 
+	/**
+	 * Reads a range of data rows from a CSV file without parsing the rest of the
+	 * file. A sidecar row offset index ({@code <file>.idx}) is built on the first
+	 * call, and rebuilt whenever the file size or modification time no longer
+	 * matches it; later calls read only the header and the requested rows. The
+	 * index is built by scanning bytes, so the configured CSV format must use
+	 * single character delimiter and quote, and no escape, comment or header, and
+	 * the charset must keep them and line breaks single ASCII bytes, as UTF-8 and
+	 * ISO-8859-1 do.
+	 *
+	 * @param path    Path to the CSV file.
+	 * @param fromRow Index of the first data row to read, 0 being the row after
+	 *                the header.
+	 * @param count   Maximum number of rows to read.
+	 * @return List of map objects containing the read rows, empty past the end of
+	 *         the file.
+	 * @throws IOException If an I/O error occurs, the file is not a CSV file, or
+	 *                     the configured format or charset cannot be indexed.
+	 */
+
+	public List<Map<String, Object>> readRange(String path, long fromRow, int count) throws IOException {
+		Path csvFile = Path.of(path);
+		if (!"csv".equalsIgnoreCase(fileUtility.getFileType(csvFile.getFileName().toString()))) {
+			throw new IOException("Only csv file format is allowed for range reads");
+		}
+		if (fromRow < 0 || count < 0) {
+			throw new IllegalArgumentException("Row range cannot be negative");
+		}
+		CsvRowIndex.checkSupported(fileConfig.getCsvFormat(), fileConfig.getCharset());
+		try (CsvRowIndex index = CsvRowIndex.open(csvFile, fileConfig.getCsvFormat());
+				FileChannel channel = FileChannel.open(csvFile, StandardOpenOption.READ)) {
+			if (fromRow >= index.getRecordCount() - 1 || count == 0) {
+				return new ArrayList<>();
+			}
+			long firstRecord = fromRow + 1;
+			long lastRecord = firstRecord + Math.min(count, index.getRecordCount() - firstRecord);
+			List<String> header;
+			try (CSVParser headerParser = parseCsvRange(channel, index.getOffset(0), index.getOffset(1))) {
+				header = readCsvHeader(headerParser.iterator().next());
+			}
+			RowMapper rowMapper = new RowMapper(header, new ReadOptions());
+			List<Map<String, Object>> rows = new ArrayList<>((int) (lastRecord - firstRecord));
+			try (CSVParser csvParser = parseCsvRange(channel, index.getOffset(firstRecord),
+					index.getOffset(lastRecord))) {
+				for (CSVRecord csvRow : csvParser) {
+					rows.add(readCsvRecord(csvRow, rowMapper));
+				}
+			}
+			return rows;
+		}
+	}
+
+	/**
+	 * Opens a parser over a byte range of a CSV file. The range is read with
+	 * positional reads as the records are parsed, so it is never held in memory
+	 * as a whole.
+	 *
+	 * @param channel Channel of the CSV file.
+	 * @param start   Offset of the first byte of the range.
+	 * @param end     Offset just past the last byte of the range.
+	 * @return Parser of the records of the range.
+	 * @throws IOException If an I/O error occurs.
+	 */
+
+	private CSVParser parseCsvRange(FileChannel channel, long start, long end) throws IOException {
+		InputStream range = CsvRowIndex.openRange(channel, start, end);
+		return new CSVParser(new InputStreamReader(range, fileConfig.getCharset()), fileConfig.getCsvFormat());
+	}
+
 	/**
 	 * Reads an Excel workbook and converts its data to a list of map objects.
 	 *
-	 * @param workbook Workbook to be read.
+	 * @param workbook    Workbook to be read.
+	 * @param readOptions Column projection and row filter to apply.
 	 * @return List of map objects containing the read data.
 	 */
 
-	private List<Map<String, Object>> readWorkbook(Workbook workbook) {
+	private List<Map<String, Object>> readWorkbook(Workbook workbook, ReadOptions readOptions) {
 		List<Map<String, Object>> modelMap = new LinkedList<>();
 		Sheet sheet = workbook.getSheetAt(0);
-		DataFormatter formatter = new DataFormatter();
+		DataFormatter formatter = formatters.get();
 
 		Row headerRow = sheet.getRow(0);
 		List<String> header = readHeaderRow(headerRow, formatter);
+		RowMapper rowMapper = new RowMapper(header, readOptions);
 
 		for (int rowIndex = 1; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
 			Row currentRow = sheet.getRow(rowIndex);
-			Map<String, Object> rowMap = readRowData(currentRow, header, formatter);
-			modelMap.add(rowMap);
+			Map<String, Object> rowMap = rowMapper
+					.readRowData(cellIndex -> readCellValue(currentRow, cellIndex, formatter));
+			if (rowMap != null) {
+				modelMap.add(rowMap);
+			}
 		}
 
 		return modelMap;
@@ -129,34 +336,158 @@ public class ReadFile {
 	}
 
 	/**
-	 * Reads the data of a row and returns a map containing column names and cell
-	 * values.
+	 * Resolves the indexes of the header columns selected by the read options.
 	 *
-	 * @param currentRow Row to be read.
-	 * @param header     List of column headers.
-	 * @param formatter  DataFormatter for formatting cell values.
-	 * @return Map containing column names and cell values.
+	 * @param header      List of column headers.
+	 * @param readOptions Read options holding the column projection.
+	 * @return Indexes of the columns to be read, in header order.
+	 */
+
+	private int[] resolveColumns(List<String> header, ReadOptions readOptions) {
+		Set<String> columns = readOptions.getColumns();
+		if (columns == null) {
+			return IntStream.range(0, header.size()).toArray();
+		}
+		Set<String> columnNames = new HashSet<>(columns);
+		columns.forEach(column -> columnNames.add(headerToCamelCase(column)));
+		return IntStream.range(0, header.size()).filter(i -> columnNames.contains(header.get(i))).toArray();
+	}
+
+	/**
+	 * Returns the column headers of the projected columns. Columns sharing a
+	 * camel case header share one key in each row map, so the header lists that
+	 * key once, at the position of its first column.
+	 *
+	 * @param header  List of column headers.
+	 * @param columns Indexes of the projected columns.
+	 * @return List of distinct projected column headers.
 	 */
 
-	private Map<String, Object> readRowData(Row currentRow, List<String> header, DataFormatter formatter) {
-		Map<String, Object> rowMap = new LinkedHashMap<>();
-		for (int cellIndex = 0; cellIndex < header.size(); cellIndex++) {
-			Cell currentCell = currentRow.getCell(cellIndex, Row.MissingCellPolicy.RETURN_BLANK_AS_NULL);
-			String columnName = header.get(cellIndex);
+	private List<String> projectHeader(List<String> header, int[] columns) {
+		return Arrays.stream(columns).mapToObj(header::get).distinct().toList();
+	}
 
-			if (currentCell != null) {
-				Object cellValue;
-				if (currentCell.getCellType() == CellType.FORMULA) {
-					cellValue = getFormulaCellValue(currentCell);
-				} else {
-					cellValue = formatter.formatCellValue(currentCell);
-				}
-				rowMap.put(columnName, cellValue);
-			} else {
-				rowMap.put(columnName, "");
+	/**
+	 * Reads the rows of a single file into maps. Column names used by the row
+	 * filter are resolved against the header once per file, and cells read by the
+	 * filter are decoded only once per row.
+	 */
+	private final class RowMapper {
+
+		private final List<String> header;
+		private final int[] columns;
+		private final ReadOptions readOptions;
+		private final Map<String, Integer> columnIndexes = new HashMap<>();
+		private final Object[] rowValues;
+		private final BitSet decoded = new BitSet();
+		private IntFunction<Object> cellValues;
+
+		/**
+		 * Creates a row mapper for a file.
+		 *
+		 * @param header      List of column headers.
+		 * @param readOptions Column projection, row filter and profile to apply.
+		 */
+		RowMapper(List<String> header, ReadOptions readOptions) {
+			this.header = header;
+			this.columns = resolveColumns(header, readOptions);
+			this.readOptions = readOptions;
+			this.rowValues = new Object[header.size()];
+			for (int cellIndex = 0; cellIndex < header.size(); cellIndex++) {
+				columnIndexes.putIfAbsent(header.get(cellIndex), cellIndex);
+			}
+		}
+
+		/**
+		 * @return Indexes of the projected columns, in header order.
+		 */
+		int[] getColumns() {
+			return columns;
+		}
+
+		/**
+		 * @return List of distinct projected column headers, matching the keys of
+		 *         each row map.
+		 */
+		List<String> getProjectedHeader() {
+			return projectHeader(header, columns);
+		}
+
+		/**
+		 * Reads the data of a row and returns a map containing column names and cell
+		 * values. The row filter is evaluated first, and only the projected columns
+		 * are read into the map and added to the profile, if any.
+		 *
+		 * @param cellValues Function reading the cell value at a column index.
+		 * @return Map containing column names and cell values, or null if the row is
+		 *         filtered out.
+		 */
+		Map<String, Object> readRowData(IntFunction<Object> cellValues) {
+			this.cellValues = cellValues;
+			decoded.clear();
+			Predicate<RowView> filter = readOptions.getFilter();
+			if (filter != null && !filter.test(this::getFilterValue)) {
+				return null;
+			}
+			Map<String, Object> rowMap = new LinkedHashMap<>();
+			for (int cellIndex : columns) {
+				rowMap.put(header.get(cellIndex), getCellValue(cellIndex));
+			}
+			if (readOptions.getProfile() != null) {
+				readOptions.getProfile().accept(rowMap);
+			}
+			return rowMap;
+		}
+
+		/**
+		 * Returns the value of a column for the row filter. Columns can be named by
+		 * their header in the file or by their camel case name.
+		 *
+		 * @param column Column name.
+		 * @return Cell value, or null if the file has no such column.
+		 */
+		private Object getFilterValue(String column) {
+			Integer cellIndex = columnIndexes.get(column);
+			if (cellIndex == null) {
+				cellIndex = columnIndexes.getOrDefault(headerToCamelCase(column), -1);
+				columnIndexes.put(column, cellIndex);
 			}
+			return cellIndex >= 0 ? getCellValue(cellIndex) : null;
+		}
+
+		/**
+		 * Returns the value of a cell of the current row, decoding it on first use.
+		 *
+		 * @param cellIndex Index of the cell.
+		 * @return Cell value.
+		 */
+		private Object getCellValue(int cellIndex) {
+			if (!decoded.get(cellIndex)) {
+				rowValues[cellIndex] = cellValues.apply(cellIndex);
+				decoded.set(cellIndex);
+			}
+			return rowValues[cellIndex];
+		}
+	}
+
+	/**
+	 * Reads the value of a cell of a sheet row.
+	 *
+	 * @param currentRow Row to be read.
+	 * @param cellIndex  Index of the cell.
+	 * @param formatter  DataFormatter for formatting cell values.
+	 * @return Cell value, or an empty string for a missing cell.
+	 */
+
+	private Object readCellValue(Row currentRow, int cellIndex, DataFormatter formatter) {
+		Cell currentCell = currentRow.getCell(cellIndex, Row.MissingCellPolicy.RETURN_BLANK_AS_NULL);
+		if (currentCell == null) {
+			return "";
+		}
+		if (currentCell.getCellType() == CellType.FORMULA) {
+			return getFormulaCellValue(currentCell);
 		}
-		return rowMap;
+		return formatter.formatCellValue(currentCell);
 	}
 
 	/**
@@ -185,22 +516,152 @@ public class ReadFile {
 		}
 	}
 
+	/**
+	 * Streams the first sheet of an XLSX file and passes its rows to a row
+	 * handler.
+	 *
+	 * @param inputFile   InputStream of the XLSX file.
+	 * @param readOptions Column projection and row filter to apply.
+	 * @param rowHandler  Handler receiving the header and rows of the sheet.
+	 * @throws IOException If an I/O error occurs or the file is not a valid XLSX.
+	 */
+
+	private void readXlsxRows(InputStream inputFile, ReadOptions readOptions, RowHandler rowHandler)
+			throws IOException {
+		try (OPCPackage opcPackage = OPCPackage.open(inputFile)) {
+			XSSFReader xssfReader = new XSSFReader(opcPackage);
+			ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(opcPackage);
+			XlsxSheetHandler sheetHandler = new XlsxSheetHandler(sharedStrings, xssfReader.getStylesTable(),
+					formatters.get());
+			List<RowMapper> rowMappers = new ArrayList<>(1);
+			sheetHandler.setRowConsumer(sheetRow -> {
+				if (rowMappers.isEmpty()) {
+					List<String> header = new ArrayList<>();
+					for (int cellIndex = 0; cellIndex < sheetRow.size(); cellIndex++) {
+						Object value = sheetRow.get(cellIndex);
+						if (value != null) {
+							header.add(headerToCamelCase(value.toString()));
+						}
+					}
+					RowMapper rowMapper = new RowMapper(header, readOptions);
+					rowMappers.add(rowMapper);
+					if (readOptions.getFilter() == null) {
+						BitSet projection = new BitSet();
+						Arrays.stream(rowMapper.getColumns()).forEach(projection::set);
+						sheetHandler.setColumns(projection);
+					}
+					rowHandler.header(rowMapper.getProjectedHeader());
+				} else {
+					Map<String, Object> rowMap = rowMappers.get(0).readRowData(cellIndex -> {
+						Object value = sheetRow.get(cellIndex);
+						return value != null ? value : "";
+					});
+					if (rowMap != null) {
+						rowHandler.row(rowMap);
+					}
+				}
+			});
+			XMLReader sheetParser = acquireSheetParser();
+			sheetParser.setContentHandler(sheetHandler);
+			try (InputStream sheet = xssfReader.getSheetsData().next()) {
+				sheetParser.parse(new InputSource(sheet));
+			} finally {
+				releaseSheetParser(sheetParser);
+			}
+		} catch (SAXException e) {
+			if (e.getException() instanceof IOException ioException) {
+				throw ioException;
+			}
+			throw new IOException("Unable to read xlsx file Error -" + e.getMessage(), e);
+		} catch (OpenXML4JException | ParserConfigurationException e) {
+			throw new IOException("Unable to read xlsx file Error -" + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Takes the idle XML parser of the current thread, or creates one if there is
+	 * none. Creating a secure SAX parser is costly compared to parsing a small
+	 * sheet. A row handler reading another XLSX file from within a row gets a new
+	 * parser, since the thread's parser is still in use.
+	 *
+	 * @return XML parser reserved for the caller until it is released.
+	 * @throws SAXException                 If the parser cannot be created.
+	 * @throws ParserConfigurationException If the parser cannot be configured.
+	 */
+
+	private XMLReader acquireSheetParser() throws SAXException, ParserConfigurationException {
+		XMLReader sheetParser = sheetParsers.get();
+		if (sheetParser == null) {
+			return XMLHelper.newXMLReader();
+		}
+		sheetParsers.remove();
+		return sheetParser;
+	}
+
+	/**
+	 * Keeps an XML parser as the idle parser of the current thread. Its content
+	 * handler is reset first, so that the parser does not keep the last file's
+	 * shared strings, styles and row handler reachable.
+	 *
+	 * @param sheetParser XML parser no longer in use.
+	 */
+
+	private void releaseSheetParser(XMLReader sheetParser) {
+		sheetParser.setContentHandler(NO_CONTENT);
+		sheetParsers.set(sheetParser);
+	}
+
 	/**
 	 * Reads data from a CSV file and converts it to a list of map objects.
 	 *
-	 * @param inputFile InputStream of the CSV file.
+	 * @param inputFile   InputStream of the CSV file.
+	 * @param readOptions Column projection and row filter to apply.
 	 * @return List of map objects containing the read data.
 	 * @throws IOException If an I/O error occurs.
 	 */
 
-	private List<Map<String, Object>> readCsvFile(InputStream inputFile) throws IOException {
-		try (CSVParser csvParser = new CSVParser(new InputStreamReader(inputFile), CSVFormat.DEFAULT)) {
-			List<CSVRecord> csvRows = csvParser.getRecords();
-			if (csvRows.isEmpty()) {
-				return Collections.emptyList();
+	private List<Map<String, Object>> readCsvFile(InputStream inputFile, ReadOptions readOptions)
+			throws IOException {
+		List<Map<String, Object>> modelMap = new ArrayList<>();
+		readCsvRows(inputFile, readOptions, new RowHandler() {
+			@Override
+			public void header(List<String> header) {
+				// Only the rows are collected
+			}
+
+			@Override
+			public void row(Map<String, Object> row) {
+				modelMap.add(row);
+			}
+		});
+		return modelMap;
+	}
+
+	/**
+	 * Parses a CSV file record by record and passes its rows to a row handler.
+	 *
+	 * @param inputFile   InputStream of the CSV file.
+	 * @param readOptions Column projection and row filter to apply.
+	 * @param rowHandler  Handler receiving the header and rows of the file.
+	 * @throws IOException If an I/O error occurs.
+	 */
+
+	private void readCsvRows(InputStream inputFile, ReadOptions readOptions, RowHandler rowHandler)
+			throws IOException {
+		try (CSVParser csvParser = new CSVParser(new InputStreamReader(inputFile, fileConfig.getCharset()),
+				fileConfig.getCsvFormat())) {
+			Iterator<CSVRecord> csvRows = csvParser.iterator();
+			if (!csvRows.hasNext()) {
+				return;
+			}
+			RowMapper rowMapper = new RowMapper(readCsvHeader(csvRows.next()), readOptions);
+			rowHandler.header(rowMapper.getProjectedHeader());
+			while (csvRows.hasNext()) {
+				Map<String, Object> rowMap = readCsvRecord(csvRows.next(), rowMapper);
+				if (rowMap != null) {
+					rowHandler.row(rowMap);
+				}
 			}
-			List<String> header = readCsvHeader(csvRows.get(0));
-			return csvRows.stream().skip(1).map(row -> readCsvRecord(row, header)).toList();
 		}
 	}
 
@@ -219,19 +680,14 @@ public class ReadFile {
 	/**
 	 * Reads a CSV record and returns a map containing column names and cell values.
 	 *
-	 * @param csvRow CSVRecord to be read.
-	 * @param header List of column headers.
-	 * @return Map containing column names and cell values.
+	 * @param csvRow    CSVRecord to be read.
+	 * @param rowMapper Row mapper of the file the record belongs to.
+	 * @return Map containing column names and cell values, or null if the record
+	 *         is filtered out.
 	 */
 
-	private Map<String, Object> readCsvRecord(CSVRecord csvRow, List<String> header) {
-		Map<String, Object> rowMap = new LinkedHashMap<>();
-		IntStream.range(0, header.size()).forEach(i -> {
-			String columnName = header.get(i);
-			String cellValue = csvRow.get(i);
-			rowMap.put(columnName, cellValue);
-		});
-		return rowMap;
+	private Map<String, Object> readCsvRecord(CSVRecord csvRow, RowMapper rowMapper) {
+		return rowMapper.readRowData(csvRow::get);
 	}
 
 	/**
@@ -0,0 +1,92 @@
+package org.library.filereader;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Options narrowing down the data returned when reading a file.
+ */
+public class ReadOptions {
+
+	private Set<String> columns;
+	private Predicate<RowView> filter;
+	private FileProfile profile;
+
+	/**
+	 * Restricts the read to the given columns. Columns can be given by their
+	 * header in the file or by their camel case name. Other columns are neither
+	 * decoded nor added to the rows.
+	 *
+	 * @param columns Column names to be read.
+	 * @return These options.
+	 */
+	public ReadOptions columns(String... columns) {
+		return columns(Arrays.asList(columns));
+	}
+
+	/**
+	 * Restricts the read to the given columns. Columns can be given by their
+	 * header in the file or by their camel case name. Other columns are neither
+	 * decoded nor added to the rows.
+	 *
+	 * @param columns Column names to be read.
+	 * @return These options.
+	 */
+	public ReadOptions columns(Collection<String> columns) {
+		this.columns = columns != null ? new LinkedHashSet<>(columns) : null;
+		return this;
+	}
+
+	/**
+	 * Keeps only the rows accepted by the filter. The filter is evaluated before
+	 * the row map is built and may look at any column, projected or not.
+	 *
+	 * @param filter Predicate deciding which rows are kept.
+	 * @return These options.
+	 */
+	public ReadOptions filter(Predicate<RowView> filter) {
+		this.filter = filter;
+		return this;
+	}
+
+	/**
+	 * Collects the statistics of the read columns into the profile while the rows
+	 * are parsed. Only the projected columns of the rows accepted by the filter
+	 * are counted.
+	 *
+	 * @param profile Profile receiving the column statistics.
+	 * @return These options.
+	 */
+	public ReadOptions profile(FileProfile profile) {
+		this.profile = profile;
+		return this;
+	}
+
+	/**
+	 * Returns a copy of these options collecting statistics into another profile,
+	 * leaving these options unchanged.
+	 *
+	 * @param profile Profile receiving the column statistics.
+	 * @return Copy of these options using the profile.
+	 */
+	ReadOptions withProfile(FileProfile profile) {
+		ReadOptions copy = new ReadOptions().filter(filter).profile(profile);
+		copy.columns = columns;
+		return copy;
+	}
+
+	public Set<String> getColumns() {
+		return columns;
+	}
+
+	public Predicate<RowView> getFilter() {
+		return filter;
+	}
+
+	public FileProfile getProfile() {
+		return profile;
+	}
+}
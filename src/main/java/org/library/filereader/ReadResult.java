@@ -0,0 +1,26 @@
+package org.library.filereader;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rows read from a file together with the statistics of their columns.
+ */
+public class ReadResult {
+
+	private final List<Map<String, Object>> rows;
+	private final FileProfile profile;
+
+	public ReadResult(List<Map<String, Object>> rows, FileProfile profile) {
+		this.rows = rows;
+		this.profile = profile;
+	}
+
+	public List<Map<String, Object>> getRows() {
+		return rows;
+	}
+
+	public FileProfile getProfile() {
+		return profile;
+	}
+}
@@ -0,0 +1,28 @@
+package org.library.filereader;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Callback receiving the rows of a file one at a time while it is being read.
+ */
+public interface RowHandler {
+
+	/**
+	 * Called once with the camel case column headers before any row is passed.
+	 * The headers are the keys of every row map, in the same order.
+	 *
+	 * @param header List of column headers.
+	 * @throws IOException If the header cannot be processed.
+	 */
+	void header(List<String> header) throws IOException;
+
+	/**
+	 * Called for every data row of the file, in file order.
+	 *
+	 * @param row Map containing column names and cell values.
+	 * @throws IOException If the row cannot be processed.
+	 */
+	void row(Map<String, Object> row) throws IOException;
+}
@@ -0,0 +1,17 @@
+package org.library.filereader;
+
+/**
+ * Read-only view of a row that is being parsed. Cell values are only decoded
+ * when they are requested, and at most once per row.
+ */
+@FunctionalInterface
+public interface RowView {
+
+	/**
+	 * Returns the value of a column of the row.
+	 *
+	 * @param column Column header in the file or camel case column name.
+	 * @return Cell value, or null if the file has no such column.
+	 */
+	Object get(String column);
+}
@@ -0,0 +1,252 @@
+package org.library.filereader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * SAX handler reading the rows of a single XLSX sheet without loading the
+ * sheet into memory. Cells are kept undecoded until their value is requested,
+ * and are then decoded the same way {@link ReadFile#readFileAsList} decodes
+ * them from a workbook.
+ */
+class XlsxSheetHandler extends DefaultHandler {
+
+	/**
+	 * Receives the rows of a sheet.
+	 */
+	interface SheetRowConsumer {
+
+		/**
+		 * Called for every row of the sheet, in sheet order. The row is only valid
+		 * for the duration of the call.
+		 *
+		 * @param row Row whose cells are decoded on access.
+		 * @throws IOException If the row cannot be processed.
+		 */
+		void accept(SheetRow row) throws IOException;
+	}
+
+	/**
+	 * Row of a sheet whose cell values are decoded on access.
+	 */
+	interface SheetRow {
+
+		/**
+		 * @return Number of columns up to the last cell of the row.
+		 */
+		int size();
+
+		/**
+		 * Decodes the value of a cell.
+		 *
+		 * @param columnIndex Index of the column.
+		 * @return Decoded cell value, null for missing or skipped cells.
+		 */
+		Object get(int columnIndex);
+	}
+
+	/**
+	 * Undecoded content of a cell, reused between rows.
+	 */
+	private static class RawCell {
+		private boolean present;
+		private boolean formula;
+		private String type;
+		private String style;
+		private final StringBuilder value = new StringBuilder();
+	}
+
+	private final SharedStrings sharedStrings;
+	private final StylesTable stylesTable;
+	private final DataFormatter formatter;
+	private SheetRowConsumer consumer;
+
+	private final List<RawCell> rowCells = new ArrayList<>();
+	private final SheetRow sheetRow = new SheetRow() {
+		@Override
+		public int size() {
+			return rowSize;
+		}
+
+		@Override
+		public Object get(int columnIndex) {
+			if (columnIndex >= rowSize || !rowCells.get(columnIndex).present) {
+				return null;
+			}
+			return decodeCell(rowCells.get(columnIndex));
+		}
+	};
+	private BitSet columns;
+	private RawCell currentCell;
+	private boolean collecting;
+	private int columnIndex;
+	private int rowSize;
+
+	/**
+	 * Creates a handler for a sheet of the given workbook tables.
+	 *
+	 * @param sharedStrings Shared strings table of the workbook.
+	 * @param stylesTable   Styles table of the workbook.
+	 * @param formatter     DataFormatter for formatting cell values.
+	 */
+	XlsxSheetHandler(SharedStrings sharedStrings, StylesTable stylesTable, DataFormatter formatter) {
+		this.sharedStrings = sharedStrings;
+		this.stylesTable = stylesTable;
+		this.formatter = formatter;
+	}
+
+	/**
+	 * Sets the consumer receiving the rows of the sheet.
+	 *
+	 * @param consumer Consumer receiving the rows.
+	 */
+	void setRowConsumer(SheetRowConsumer consumer) {
+		this.consumer = consumer;
+	}
+
+	/**
+	 * Restricts the cells kept for the following rows. Cells of other columns are
+	 * skipped while parsing and read as missing.
+	 *
+	 * @param columns Indexes of the columns to keep, null to keep every column.
+	 */
+	void setColumns(BitSet columns) {
+		this.columns = columns;
+	}
+
+	@Override
+	public void startElement(String uri, String localName, String qName, Attributes attributes) {
+		switch (localName) {
+		case "row":
+			rowCells.forEach(cell -> cell.present = false);
+			columnIndex = -1;
+			rowSize = 0;
+			break;
+		case "c":
+			String reference = attributes.getValue("r");
+			columnIndex = reference != null ? new CellReference(reference).getCol() : columnIndex + 1;
+			currentCell = columns == null || columns.get(columnIndex) ? startCell(attributes) : null;
+			break;
+		case "f":
+			if (currentCell != null) {
+				currentCell.formula = true;
+			}
+			break;
+		case "v", "t":
+			collecting = currentCell != null;
+			break;
+		default:
+			break;
+		}
+	}
+
+	@Override
+	public void characters(char[] ch, int start, int length) {
+		if (collecting) {
+			currentCell.value.append(ch, start, length);
+		}
+	}
+
+	@Override
+	public void endElement(String uri, String localName, String qName) throws SAXException {
+		switch (localName) {
+		case "v", "t":
+			collecting = false;
+			break;
+		case "c":
+			currentCell = null;
+			break;
+		case "row":
+			try {
+				consumer.accept(sheetRow);
+			} catch (IOException e) {
+				throw new SAXException(e);
+			}
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Prepares the raw cell of the current column for the cell being parsed.
+	 *
+	 * @param attributes Attributes of the cell element.
+	 * @return Raw cell collecting the cell content.
+	 */
+	private RawCell startCell(Attributes attributes) {
+		while (rowCells.size() <= columnIndex) {
+			rowCells.add(new RawCell());
+		}
+		RawCell cell = rowCells.get(columnIndex);
+		cell.present = true;
+		cell.formula = false;
+		cell.type = attributes.getValue("t");
+		cell.style = attributes.getValue("s");
+		cell.value.setLength(0);
+		rowSize = Math.max(rowSize, columnIndex + 1);
+		return cell;
+	}
+
+	/**
+	 * Decodes the collected value of a cell based on its type and style.
+	 *
+	 * @param cell Raw cell to be decoded.
+	 * @return Decoded cell value.
+	 */
+	private Object decodeCell(RawCell cell) {
+		String raw = cell.value.toString();
+		if (cell.type == null || "n".equals(cell.type)) {
+			return raw.isEmpty() ? "" : decodeNumber(cell, Double.parseDouble(raw));
+		}
+		switch (cell.type) {
+		case "s":
+			return sharedStrings.getItemAt(Integer.parseInt(raw)).getString();
+		case "b":
+			boolean bool = "1".equals(raw);
+			if (cell.formula) {
+				return bool;
+			}
+			return bool ? "TRUE" : "FALSE";
+		default:
+			return raw;
+		}
+	}
+
+	/**
+	 * Decodes a numeric cell value, returning the raw number or date for formula
+	 * cells and the formatted text otherwise.
+	 *
+	 * @param cell   Raw cell the value belongs to.
+	 * @param number Numeric cell value.
+	 * @return Decoded cell value.
+	 */
+	private Object decodeNumber(RawCell cell, double number) {
+		int formatIndex = 0;
+		String formatString = null;
+		if (cell.style != null) {
+			XSSFCellStyle style = stylesTable.getStyleAt(Integer.parseInt(cell.style));
+			formatIndex = style.getDataFormat();
+			formatString = style.getDataFormatString();
+		}
+		if (formatString == null) {
+			formatString = "General";
+		}
+		if (cell.formula) {
+			return DateUtil.isADateFormat(formatIndex, formatString) ? DateUtil.getJavaDate(number) : number;
+		}
+		return formatter.formatRawCellContents(number, formatIndex, formatString);
+	}
+}
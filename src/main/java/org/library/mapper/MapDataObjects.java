@@ -18,6 +18,7 @@ import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonSyntaxException;
@@ -28,6 +29,9 @@ import com.google.gson.TypeAdapter;
  */
 public class MapDataObjects {
 
+	private static final ObjectReader JSON_MAP_READER = new ObjectMapper().readerFor(LinkedHashMap.class);
+	private static final TypeAdapter<JsonElement> STRICT_JSON_ADAPTER = new Gson().getAdapter(JsonElement.class);
+
 	@Inject
 	Logger log = LoggerFactory.getLogger(MapDataObjects.class);
 
@@ -78,6 +82,10 @@ public class MapDataObjects {
 				if (isValidJson(str)) {
 					map = mapStringToJson(str);
 				}
+			} else if (x instanceof Map<?, ?> row) {
+				for (Map.Entry<?, ?> entry : row.entrySet()) {
+					map.put(String.valueOf(entry.getKey()), entry.getValue());
+				}
 			} else if (checkForCast(x)) {
 				Field[] fields = x.getClass().getDeclaredFields();
 				mapFields(map, fields, x);
@@ -109,9 +117,8 @@ public class MapDataObjects {
 		}
 	}
 
-	@SuppressWarnings("unchecked")
 	private Map<String, Object> mapStringToJson(String data) throws JsonProcessingException {
-		return new ObjectMapper().readValue(data, LinkedHashMap.class);
+		return JSON_MAP_READER.readValue(data);
 	}
 
 	/**
@@ -121,9 +128,8 @@ public class MapDataObjects {
 	 * @return True if the JSON is valid, false otherwise.
 	 */
 	private boolean isValidJson(String json) {
-		final TypeAdapter<JsonElement> strictAdapter = new Gson().getAdapter(JsonElement.class);
 		try {
-			strictAdapter.fromJson(json);
+			STRICT_JSON_ADAPTER.fromJson(json);
 		} catch (JsonSyntaxException | IOException e) {
 			String message = "List Contains Invalid JSON Check for Syntax %s";
 			log.error(String.format(message, " Error: {}"), e);
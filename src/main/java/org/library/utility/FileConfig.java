@@ -0,0 +1,121 @@
+package org.library.utility;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+
+import org.apache.commons.csv.CSVFormat;
+
+/**
+ * Immutable configuration shared by the file readers and generators. Instances
+ * are safe to share between threads; every {@code with} method returns a
+ * modified copy.
+ */
+public final class FileConfig {
+
+	public static final int DEFAULT_STRING_CACHE_SIZE = 4096;
+
+	/**
+	 * Default configuration. CSV files are read with the platform charset, as the
+	 * readers always did, and written as UTF-8 so that no character is lost.
+	 */
+	public static final FileConfig DEFAULT = new FileConfig(CSVFormat.DEFAULT, Charset.defaultCharset(),
+			StandardCharsets.UTF_8, Locale.getDefault(), DEFAULT_STRING_CACHE_SIZE, Collections.emptySet());
+
+	private final CSVFormat csvFormat;
+	private final Charset charset;
+	private final Charset outputCharset;
+	private final Locale locale;
+	private final int stringCacheSize;
+	private final Set<String> inlineStringColumns;
+
+	private FileConfig(CSVFormat csvFormat, Charset charset, Charset outputCharset, Locale locale,
+			int stringCacheSize, Set<String> inlineStringColumns) {
+		this.csvFormat = csvFormat;
+		this.charset = charset;
+		this.outputCharset = outputCharset;
+		this.locale = locale;
+		this.stringCacheSize = stringCacheSize;
+		this.inlineStringColumns = inlineStringColumns;
+	}
+
+	/**
+	 * @param csvFormat Base CSV format used to parse and print CSV files.
+	 * @return A copy of this configuration using the CSV format.
+	 */
+	public FileConfig withCsvFormat(CSVFormat csvFormat) {
+		return new FileConfig(csvFormat, charset, outputCharset, locale, stringCacheSize, inlineStringColumns);
+	}
+
+	/**
+	 * @param charset Charset of the CSV files read.
+	 * @return A copy of this configuration using the charset.
+	 */
+	public FileConfig withCharset(Charset charset) {
+		return new FileConfig(csvFormat, charset, outputCharset, locale, stringCacheSize, inlineStringColumns);
+	}
+
+	/**
+	 * @param outputCharset Charset of the CSV files written.
+	 * @return A copy of this configuration using the output charset.
+	 */
+	public FileConfig withOutputCharset(Charset outputCharset) {
+		return new FileConfig(csvFormat, charset, outputCharset, locale, stringCacheSize, inlineStringColumns);
+	}
+
+	/**
+	 * @param locale Locale used to format XLSX cell values.
+	 * @return A copy of this configuration using the locale.
+	 */
+	public FileConfig withLocale(Locale locale) {
+		return new FileConfig(csvFormat, charset, outputCharset, locale, stringCacheSize, inlineStringColumns);
+	}
+
+	/**
+	 * @param stringCacheSize Maximum number of distinct strings whose shared
+	 *                        string index is remembered while writing an XLSX
+	 *                        file.
+	 * @return A copy of this configuration using the cache size.
+	 */
+	public FileConfig withStringCacheSize(int stringCacheSize) {
+		return new FileConfig(csvFormat, charset, outputCharset, locale, stringCacheSize, inlineStringColumns);
+	}
+
+	/**
+	 * @param inlineStringColumns Column keys whose string values are written as
+	 *                            inline strings in XLSX files generated by
+	 *                            {@code GenerateFile.generateResponse}.
+	 * @return A copy of this configuration using the inline string columns.
+	 */
+	public FileConfig withInlineStringColumns(Collection<String> inlineStringColumns) {
+		return new FileConfig(csvFormat, charset, outputCharset, locale, stringCacheSize,
+				Set.copyOf(inlineStringColumns));
+	}
+
+	public CSVFormat getCsvFormat() {
+		return csvFormat;
+	}
+
+	public Charset getCharset() {
+		return charset;
+	}
+
+	public Charset getOutputCharset() {
+		return outputCharset;
+	}
+
+	public Locale getLocale() {
+		return locale;
+	}
+
+	public int getStringCacheSize() {
+		return stringCacheSize;
+	}
+
+	public Set<String> getInlineStringColumns() {
+		return inlineStringColumns;
+	}
+}
@@ -0,0 +1,92 @@
+package org.library.utility;
+
+/**
+ * A HyperLogLog sketch estimating the number of distinct values added to it
+ * using a fixed amount of memory.
+ */
+public class HyperLogLog {
+
+	public static final int DEFAULT_PRECISION = 10;
+
+	private final int precision;
+	private final byte[] registers;
+
+	/**
+	 * Creates a sketch with 2^10 registers, giving a standard error of about 3%.
+	 */
+	public HyperLogLog() {
+		this(DEFAULT_PRECISION);
+	}
+
+	/**
+	 * Creates a sketch with 2^precision registers.
+	 *
+	 * @param precision Number of hash bits used to select a register, between 4
+	 *                  and 16.
+	 */
+	public HyperLogLog(int precision) {
+		if (precision < 4 || precision > 16) {
+			throw new IllegalArgumentException("Precision must be between 4 and 16");
+		}
+		this.precision = precision;
+		this.registers = new byte[1 << precision];
+	}
+
+	/**
+	 * Adds a value to the sketch.
+	 *
+	 * @param value The value to add.
+	 */
+	public void add(String value) {
+		long hash = hash(value);
+		int index = (int) (hash >>> (64 - precision));
+		byte rank = (byte) (Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1);
+		if (rank > registers[index]) {
+			registers[index] = rank;
+		}
+	}
+
+	/**
+	 * Estimates the number of distinct values added to the sketch.
+	 *
+	 * @return The estimated distinct count.
+	 */
+	public long estimate() {
+		int m = registers.length;
+		double sum = 0;
+		int zeros = 0;
+		for (byte register : registers) {
+			sum += 1.0 / (1L << register);
+			if (register == 0) {
+				zeros++;
+			}
+		}
+		double alpha = 0.7213 / (1 + 1.079 / m);
+		double estimate = alpha * m * m / sum;
+		if (estimate <= 2.5 * m && zeros > 0) {
+			estimate = m * Math.log((double) m / zeros);
+		}
+		return Math.round(estimate);
+	}
+
+	/**
+	 * Computes a 64 bit hash of a string using FNV-1a followed by the MurmurHash3
+	 * finalizer to spread the bits.
+	 *
+	 * @param value The string to hash.
+	 * @return The 64 bit hash.
+	 */
+	private static long hash(String value) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < value.length(); i++) {
+			hash ^= value.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+}
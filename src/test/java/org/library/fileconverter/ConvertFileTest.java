@@ -0,0 +1,144 @@
+package org.library.fileconverter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.library.filereader.ReadFile;
+
+class ConvertFileTest {
+
+	private ConvertFile convertFile;
+	private ReadFile readFile;
+
+	@BeforeEach
+	public void setup() {
+		convertFile = new ConvertFile();
+		readFile = new ReadFile();
+	}
+
+	@Test
+	void testConvertCsvToXlsx() throws IOException {
+		List<Map<String, Object>> expected = readFile.readFileFromPath("src/test/resources/testfiles/test.csv");
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (InputStream in = new FileInputStream("src/test/resources/testfiles/test.csv")) {
+			convertFile.convert(in, "test.csv", out, "test.xlsx");
+		}
+
+		List<Map<String, Object>> actual = readFile.readFileAsList(new ByteArrayInputStream(out.toByteArray()),
+				"test.xlsx");
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(List.copyOf(expected.get(i).values()), List.copyOf(actual.get(i).values()));
+		}
+	}
+
+	@Test
+	void testConvertXlsxToCsv() throws IOException {
+		List<Map<String, Object>> expected = readFile.readFileFromPath("src/test/resources/testfiles/test.xlsx");
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (InputStream in = new FileInputStream("src/test/resources/testfiles/test.xlsx")) {
+			convertFile.convert(in, "test.xlsx", out, "test.csv");
+		}
+
+		assertEquals(expected, readFile.readFileAsList(new ByteArrayInputStream(out.toByteArray()), "test.csv"));
+	}
+
+	@Test
+	void testConvertXlsxToCsvWritesUtf8() throws IOException {
+		ByteArrayOutputStream xlsx = new ByteArrayOutputStream();
+		try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+			Sheet sheet = workbook.createSheet();
+			sheet.createRow(0).createCell(0).setCellValue("name");
+			sheet.createRow(1).createCell(0).setCellValue("M\u0101ori caf\u00e9");
+			workbook.write(xlsx);
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		convertFile.convert(new ByteArrayInputStream(xlsx.toByteArray()), "test.xlsx", out, "test.csv");
+
+		assertEquals("NAME\r\nM\u0101ori caf\u00e9\r\n", out.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void testConvertXlsxToCsvFormatsFormulaResults() throws IOException {
+		ByteArrayOutputStream xlsx = new ByteArrayOutputStream();
+		try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+			CellStyle dateStyle = workbook.createCellStyle();
+			dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+			Sheet sheet = workbook.createSheet();
+			Row header = sheet.createRow(0);
+			header.createCell(0).setCellValue("total");
+			header.createCell(1).setCellValue("ratio");
+			header.createCell(2).setCellValue("due");
+			header.createCell(3).setCellValue("at");
+			Row row = sheet.createRow(1);
+			row.createCell(0).setCellFormula("1+2");
+			row.createCell(1).setCellFormula("1/4");
+			row.createCell(2).setCellFormula("DATE(2023,5,1)");
+			row.getCell(2).setCellStyle(dateStyle);
+			row.createCell(3).setCellFormula("DATE(2023,5,1)+TIME(13,30,0)");
+			row.getCell(3).setCellStyle(dateStyle);
+			workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+			workbook.write(xlsx);
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		convertFile.convert(new ByteArrayInputStream(xlsx.toByteArray()), "test.xlsx", out, "test.csv");
+
+		assertEquals("TOTAL,RATIO,DUE,AT\r\n3,0.25,2023-05-01,2023-05-01 13:30:00\r\n",
+				out.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void testConvertCsvToCsvWithCollidingHeaders() throws IOException {
+		InputStream in = new ByteArrayInputStream("Name,name,age\nx,y,3\n".getBytes(StandardCharsets.UTF_8));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		convertFile.convert(in, "test.csv", out, "test.csv");
+
+		assertEquals("NAME,AGE\r\ny,3\r\n", out.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void testConvertWithUnsupportedFormat() {
+		InputStream in = new ByteArrayInputStream(new byte[0]);
+
+		assertThrows(IOException.class, () -> convertFile.convert(in, "test.csv", new ByteArrayOutputStream(), "test.txt"));
+	}
+
+	@Test
+	void testConvertWithUnsupportedInputFormatWritesNothing() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		InputStream in = new ByteArrayInputStream(new byte[0]);
+
+		assertThrows(IOException.class, () -> convertFile.convert(in, "test.txt", out, "test.xlsx"));
+		assertEquals(0, out.size());
+	}
+
+	@Test
+	void testConvertMalformedCsvWritesNothing() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		InputStream in = new ByteArrayInputStream("name,age\na,1\nb,2\n\"c,3\n".getBytes(StandardCharsets.UTF_8));
+
+		assertThrows(UncheckedIOException.class, () -> convertFile.convert(in, "test.csv", out, "test.xlsx"));
+		assertEquals(0, out.size());
+	}
+}
@@ -2,6 +2,7 @@ package org.library.filegenerator;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -13,17 +14,33 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.ws.rs.core.HttpHeaders;
 
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.library.utility.FileConfig;
 import org.library.utility.FileUtility;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.STCellType;
 
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletResponse;
@@ -98,6 +115,99 @@ class GenerateFileTest {
 		verify(response, times(1)).sendError(eq(500), anyString());
 	}
 
+	@Test
+	void testGenerateExcelResponseWritesTypedCells() throws Exception {
+		HttpServletResponse response = mock(HttpServletResponse.class);
+		ServletOutputStream servletOutputStream = mock(ServletOutputStream.class);
+		when(response.getOutputStream()).thenReturn(servletOutputStream);
+
+		Map<String, Object> data = new LinkedHashMap<>();
+		data.put("name", "text1");
+		data.put("size", 36);
+		data.put("visible", true);
+		data.put("created", LocalDate.of(2023, 5, 1));
+		data.put("code", " A1 ");
+		generateFile = new GenerateFile(FileConfig.DEFAULT.withInlineStringColumns(List.of("code")));
+		generateFile.generateResponse(response, "test.xlsx", data);
+
+		ArgumentCaptor<byte[]> bytes = ArgumentCaptor.forClass(byte[].class);
+		verify(servletOutputStream).write(bytes.capture());
+		try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(bytes.getValue()))) {
+			Row header = workbook.getSheetAt(0).getRow(0);
+			Row row = workbook.getSheetAt(0).getRow(1);
+			assertEquals("CREATED", header.getCell(3).getStringCellValue());
+			assertEquals("text1", row.getCell(0).getStringCellValue());
+			assertEquals(CellType.NUMERIC, row.getCell(1).getCellType());
+			assertEquals(36, row.getCell(1).getNumericCellValue());
+			assertEquals(CellType.BOOLEAN, row.getCell(2).getCellType());
+			assertTrue(DateUtil.isCellDateFormatted(row.getCell(3)));
+			assertEquals(LocalDate.of(2023, 5, 1).atStartOfDay(), row.getCell(3).getLocalDateTimeCellValue());
+			assertEquals(STCellType.INLINE_STR, ((XSSFCell) row.getCell(4)).getCTCell().getT());
+			assertEquals(" A1 ", row.getCell(4).getStringCellValue());
+		}
+	}
+
+	@Test
+	void testOpenRowWriterKeepsDigitsOfLargeNumbers() throws Exception {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		Map<String, Object> row = new LinkedHashMap<>();
+		row.put("id", 1234567890123456789L);
+		row.put("ratio", new BigDecimal("0.1000000000000000055511"));
+		row.put("count", 42L);
+		row.put("price", new BigDecimal("999.99"));
+		try (RowWriter rowWriter = generateFile.openRowWriter(outputStream, "test.xlsx")) {
+			rowWriter.writeHeader(new ArrayList<>(row.keySet()));
+			rowWriter.writeRow(row);
+		}
+
+		try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+			Row sheetRow = workbook.getSheetAt(0).getRow(1);
+			assertEquals(CellType.STRING, sheetRow.getCell(0).getCellType());
+			assertEquals("1234567890123456789", sheetRow.getCell(0).getStringCellValue());
+			assertEquals(CellType.STRING, sheetRow.getCell(1).getCellType());
+			assertEquals("0.1000000000000000055511", sheetRow.getCell(1).getStringCellValue());
+			assertEquals(CellType.NUMERIC, sheetRow.getCell(2).getCellType());
+			assertEquals(42, sheetRow.getCell(2).getNumericCellValue());
+			assertEquals(CellType.NUMERIC, sheetRow.getCell(3).getCellType());
+			assertEquals(999.99, sheetRow.getCell(3).getNumericCellValue());
+		}
+	}
+
+	@Test
+	void testGenerateExcelResponseCountsCachedSharedStrings() throws Exception {
+		HttpServletResponse response = mock(HttpServletResponse.class);
+		ServletOutputStream servletOutputStream = mock(ServletOutputStream.class);
+		when(response.getOutputStream()).thenReturn(servletOutputStream);
+
+		List<String> data = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			data.add("{\"status\": \"ACTIVE\"}");
+		}
+		generateFile.generateResponse(response, "test.xlsx", data);
+
+		ArgumentCaptor<byte[]> bytes = ArgumentCaptor.forClass(byte[].class);
+		verify(servletOutputStream).write(bytes.capture());
+		try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(bytes.getValue()))) {
+			assertEquals(101, workbook.getSharedStringSource().getCount());
+			assertEquals(2, workbook.getSharedStringSource().getUniqueCount());
+			assertEquals("ACTIVE", workbook.getSheetAt(0).getRow(100).getCell(0).getStringCellValue());
+		}
+	}
+
+	@Test
+	void testGenerateCsvResponseWithListOfMaps() throws Exception {
+		HttpServletResponse response = mock(HttpServletResponse.class);
+		StringWriter writer = new StringWriter();
+		when(response.getWriter()).thenReturn(new PrintWriter(writer));
+
+		Map<String, Object> row = new LinkedHashMap<>();
+		row.put("productName", "Laptop");
+		row.put("price", 999.99);
+		generateFile.generateResponse(response, "test.csv", List.of(row));
+
+		assertEquals("PRODUCT NAME,PRICE\r\nLaptop,999.99\r\n", writer.toString());
+	}
+
 	String getData() {
 		return "{\r\n" + "        \"data\": \"Click Here\",\r\n" + "        \"size\": 36,\r\n"
 				+ "        \"style\": \"bold\",\r\n" + "        \"name\": \"text1\",\r\n"
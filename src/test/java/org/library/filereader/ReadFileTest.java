@@ -1,17 +1,37 @@
 package org.library.filereader;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.apache.commons.csv.CSVFormat;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.library.perf.TestCorpusGenerator;
+import org.library.perf.TestCorpusGenerator.Shape;
+import org.library.utility.FileConfig;
 import org.library.utility.FileUtility;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -96,4 +116,280 @@ class ReadFileTest {
 		assertFalse(readFile.readFileFromPath("src/test/resources/testfiles/test.xlsx").isEmpty());
 	}
 
+	@Test
+	void testReadFileRowsMatchesReadFileFromPathWithXlsx() throws IOException {
+		List<Map<String, Object>> expected = readFile.readFileFromPath("src/test/resources/testfiles/test.xlsx");
+		List<Map<String, Object>> rows = new ArrayList<>();
+
+		try (InputStream inputStream = new FileInputStream("src/test/resources/testfiles/test.xlsx")) {
+			readFile.readFileRows(inputStream, "test.xlsx", new RowHandler() {
+				@Override
+				public void header(List<String> header) {
+					assertEquals(List.copyOf(expected.get(0).keySet()), header);
+				}
+
+				@Override
+				public void row(Map<String, Object> row) {
+					rows.add(row);
+				}
+			});
+		}
+
+		assertEquals(expected, rows);
+	}
+
+	@Test
+	void testReadFileFromPathWithProjectionAndFilter() throws IOException {
+		ReadOptions readOptions = new ReadOptions().columns("industry_name", "filledJobs")
+				.filter(row -> "2020.09".equals(row.get("quarter")) && "A".equals(row.get("industryCode")));
+
+		List<Map<String, Object>> rows = readFile.readFileFromPath("src/test/resources/testfiles/test.csv",
+				readOptions);
+
+		assertEquals(1, rows.size());
+		assertEquals(List.of("industryName", "filledJobs"), List.copyOf(rows.get(0).keySet()));
+		assertEquals("Agriculture, Forestry and Fishing", rows.get(0).get("industryName"));
+		assertEquals("93195", rows.get(0).get("filledJobs"));
+	}
+
+	@Test
+	void testReadFileWithProfileLeavesReadOptionsUnchanged() throws IOException {
+		ReadOptions readOptions = new ReadOptions().columns("quarter");
+
+		ReadResult result = readFile.readFileWithProfile(getClass().getResourceAsStream("/testfiles/test.csv"),
+				"test.csv", readOptions);
+		readFile.readFileFromPath("src/test/resources/testfiles/test.csv", readOptions);
+
+		assertNull(readOptions.getProfile());
+		assertEquals(200, result.getProfile().getRowCount());
+	}
+
+	@Test
+	void testReadFileWithProfileOnlyInfersPlainNumbers() throws IOException {
+		String csv = "code,amount\n5f,1e3\n12d,-2.5\n-Infinity,.5\n0x1p3,7\n";
+
+		ReadResult result = readFile.readFileWithProfile(
+				new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), "test.csv", new ReadOptions());
+
+		assertEquals(ColumnType.STRING, result.getProfile().getColumn("code").getType());
+		assertEquals(ColumnType.DECIMAL, result.getProfile().getColumn("amount").getType());
+		assertEquals(-2.5, result.getProfile().getColumn("amount").getMin());
+		assertEquals(1000.0, result.getProfile().getColumn("amount").getMax());
+	}
+
+	@Test
+	void testReadFileFromPathFilterAcceptsFileHeaders() throws IOException {
+		ReadOptions readOptions = new ReadOptions().columns("filled jobs")
+				.filter(row -> "2020.09".equals(row.get("quarter")) && "A".equals(row.get("industry_code"))
+						&& "93195".equals(row.get("filled jobs")) && row.get("missing column") == null);
+
+		List<Map<String, Object>> rows = readFile.readFileFromPath("src/test/resources/testfiles/test.csv",
+				readOptions);
+
+		assertEquals(List.of(Map.of("filledJobs", "93195")), rows);
+	}
+
+	@Test
+	void testReadFileRowsFromWithinRowHandlerWithXlsx() throws IOException {
+		List<Map<String, Object>> expected = readFile.readFileFromPath("src/test/resources/testfiles/test.xlsx");
+		List<Map<String, Object>> outerRows = new ArrayList<>();
+		List<Map<String, Object>> innerRows = new ArrayList<>();
+		RowHandler innerHandler = new RowHandler() {
+			@Override
+			public void header(List<String> header) {
+				// Only the rows are compared
+			}
+
+			@Override
+			public void row(Map<String, Object> row) {
+				innerRows.add(row);
+			}
+		};
+
+		try (InputStream inputStream = new FileInputStream("src/test/resources/testfiles/test.xlsx")) {
+			readFile.readFileRows(inputStream, "test.xlsx", new RowHandler() {
+				@Override
+				public void header(List<String> header) {
+					// Only the rows are compared
+				}
+
+				@Override
+				public void row(Map<String, Object> row) throws IOException {
+					if (outerRows.isEmpty()) {
+						try (InputStream inner = new FileInputStream("src/test/resources/testfiles/test.xlsx")) {
+							readFile.readFileRows(inner, "test.xlsx", innerHandler);
+						}
+					}
+					outerRows.add(row);
+				}
+			});
+		}
+
+		assertEquals(expected, outerRows);
+		assertEquals(expected, innerRows);
+	}
+
+	@Test
+	void testReadFileRowsWithProjectionMatchesReadFileFromPathWithXlsx() throws IOException {
+		ReadOptions readOptions = new ReadOptions().columns("ORDR_QTY", "ordrCustNum")
+				.filter(row -> !"3".equals(row.get("ordrQty")));
+		List<Map<String, Object>> expected = readFile.readFileFromPath("src/test/resources/testfiles/test.xlsx",
+				readOptions);
+		List<Map<String, Object>> rows = new ArrayList<>();
+
+		try (InputStream inputStream = new FileInputStream("src/test/resources/testfiles/test.xlsx")) {
+			readFile.readFileRows(inputStream, "test.xlsx", readOptions, new RowHandler() {
+				@Override
+				public void header(List<String> header) {
+					assertEquals(List.of("ordrCustNum", "ordrQty"), header);
+				}
+
+				@Override
+				public void row(Map<String, Object> row) {
+					rows.add(row);
+				}
+			});
+		}
+
+		assertFalse(rows.isEmpty());
+		assertTrue(rows.stream().noneMatch(row -> "3".equals(row.get("ordrQty"))));
+		assertEquals(expected, rows);
+	}
+
+	@Test
+	void testReadFileWithProfileWithCsv() throws IOException {
+		InputStream inputStream = getClass().getResourceAsStream("/testfiles/test.csv");
+
+		ReadResult result = readFile.readFileWithProfile(inputStream, "test.csv", new ReadOptions());
+
+		FileProfile profile = result.getProfile();
+		assertEquals(200, result.getRows().size());
+		assertEquals(200, profile.getRowCount());
+		assertEquals(ColumnType.DECIMAL, profile.getColumn("quarter").getType());
+		assertEquals(2020.09, profile.getColumn("quarter").getMin());
+		assertEquals(2022.12, profile.getColumn("quarter").getMax());
+		assertEquals(10, profile.getColumn("quarter").getDistinctCount());
+		assertEquals(ColumnType.STRING, profile.getColumn("industryName").getType());
+		assertEquals(35, profile.getColumn("industryName").getMaxLength());
+		assertEquals(ColumnType.INTEGER, profile.getColumn("filledJobsDiff").getType());
+		assertEquals(-161L, profile.getColumn("filledJobsDiff").getMin());
+		assertEquals(0, profile.getColumn("filledJobsDiff").getNullCount());
+		long distinctJobs = profile.getColumn("filledJobs").getDistinctCount();
+		assertTrue(distinctJobs > 190 && distinctJobs < 210);
+	}
+
+	@Test
+	void testReadFileFromPathWithSharedReaderAcrossThreads() throws Exception {
+		ReadFile sharedReadFile = new ReadFile(FileConfig.DEFAULT);
+		List<Map<String, Object>> expected = sharedReadFile.readFileFromPath("src/test/resources/testfiles/test.xlsx");
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<List<Map<String, Object>>>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(executor.submit(() -> {
+					List<Map<String, Object>> rows = new ArrayList<>();
+					try (InputStream inputStream = new FileInputStream("src/test/resources/testfiles/test.xlsx")) {
+						sharedReadFile.readFileRows(inputStream, "test.xlsx", new RowHandler() {
+							@Override
+							public void header(List<String> header) {
+								// Only the rows are compared
+							}
+
+							@Override
+							public void row(Map<String, Object> row) {
+								rows.add(row);
+							}
+						});
+					}
+					return rows;
+				}));
+			}
+			for (Future<List<Map<String, Object>>> result : results) {
+				assertEquals(expected, result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void testReadRangeWithCsv(@TempDir Path tempDir) throws IOException {
+		Path csvFile = Files.copy(Path.of("src/test/resources/testfiles/test.csv"), tempDir.resolve("test.csv"));
+		List<Map<String, Object>> expected = readFile.readFileFromPath(csvFile.toString());
+
+		assertEquals(expected.subList(50, 60), readFile.readRange(csvFile.toString(), 50, 10));
+		assertTrue(Files.exists(tempDir.resolve("test.csv.idx")));
+		assertEquals(expected.subList(190, 200), readFile.readRange(csvFile.toString(), 190, 100));
+		assertTrue(readFile.readRange(csvFile.toString(), 200, 10).isEmpty());
+	}
+
+	@Test
+	void testReadRangeWithQuotedNewlines(@TempDir Path tempDir) throws IOException {
+		Path csvFile = new TestCorpusGenerator(7).writeCsv(tempDir.resolve("quoted.csv"), Shape.QUOTED_NEWLINES, 500,
+				8);
+		List<Map<String, Object>> expected = readFile.readFileFromPath(csvFile.toString());
+
+		assertEquals(expected.subList(0, 100), readFile.readRange(csvFile.toString(), 0, 100));
+		assertEquals(expected.subList(321, 421), readFile.readRange(csvFile.toString(), 321, 100));
+	}
+
+	@Test
+	void testReadRangeRebuildsStaleIndex(@TempDir Path tempDir) throws IOException {
+		Path csvFile = tempDir.resolve("rows.csv");
+		Files.writeString(csvFile, "NAME,CODE\r\nfirst,1\r\n");
+		assertEquals(1, readFile.readRange(csvFile.toString(), 0, 10).size());
+
+		Files.writeString(csvFile, "second,2\r\n\r\nthird,3", StandardOpenOption.APPEND);
+		Files.setLastModifiedTime(csvFile, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+
+		List<Map<String, Object>> rows = readFile.readRange(csvFile.toString(), 1, 10);
+		assertEquals(2, rows.size());
+		assertEquals(Map.of("name", "second", "code", "2"), rows.get(0));
+		assertEquals(Map.of("name", "third", "code", "3"), rows.get(1));
+	}
+
+	@Test
+	void testReadRangeWithLiteralQuoteInUnquotedField(@TempDir Path tempDir) throws IOException {
+		Path csvFile = tempDir.resolve("quotes.csv");
+		Files.writeString(csvFile, "ITEM,SIZE,CODE\nTV,5\" screen,a\nradio,\"3\"\" dial\nknob\",b\n"
+				+ "lamp,\"\",c\nfan,x\"\",d\n");
+		List<Map<String, Object>> expected = readFile.readFileFromPath(csvFile.toString());
+
+		assertEquals(4, expected.size());
+		assertEquals(expected.subList(1, 3), readFile.readRange(csvFile.toString(), 1, 2));
+		assertEquals(expected, readFile.readRange(csvFile.toString(), 0, Integer.MAX_VALUE));
+		assertTrue(readFile.readRange(csvFile.toString(), Long.MAX_VALUE, Integer.MAX_VALUE).isEmpty());
+	}
+
+	@Test
+	void testReadRangeWithConfiguredDelimiter(@TempDir Path tempDir) throws IOException {
+		ReadFile semicolonReadFile = new ReadFile(FileConfig.DEFAULT.withCharset(StandardCharsets.UTF_8)
+				.withCsvFormat(CSVFormat.DEFAULT.builder().setDelimiter(';').build()));
+		Path csvFile = tempDir.resolve("semicolon.csv");
+		Files.writeString(csvFile, "NAME;NOTE\r\ncaf\u00e9;\"a;\r\nb\"\r\nsecond;x,y\rthird;z\r\n",
+				StandardCharsets.UTF_8);
+		List<Map<String, Object>> expected = semicolonReadFile.readFileFromPath(csvFile.toString());
+
+		assertEquals(3, expected.size());
+		assertEquals(List.of(Map.of("name", "caf\u00e9", "note", "a;\r\nb")),
+				semicolonReadFile.readRange(csvFile.toString(), 0, 1));
+		assertEquals(expected.subList(1, 3), semicolonReadFile.readRange(csvFile.toString(), 1, 5));
+	}
+
+	@Test
+	void testReadRangeWithUnsupportedFormatOrCharset() {
+		String path = "src/test/resources/testfiles/test.csv";
+		ReadFile escapeReadFile = new ReadFile(
+				FileConfig.DEFAULT.withCsvFormat(CSVFormat.DEFAULT.builder().setEscape('\\').build()));
+		ReadFile utf16ReadFile = new ReadFile(FileConfig.DEFAULT.withCharset(StandardCharsets.UTF_16));
+
+		assertThrows(IOException.class, () -> escapeReadFile.readRange(path, 0, 10));
+		assertThrows(IOException.class, () -> utf16ReadFile.readRange(path, 0, 10));
+	}
+
+	@Test
+	void testReadRangeWithXlsx() {
+		assertThrows(IOException.class, () -> readFile.readRange("src/test/resources/testfiles/test.xlsx", 0, 10));
+	}
+
 }
@@ -0,0 +1,371 @@
+package org.library.perf;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.ref.Reference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.io.TempDir;
+import org.library.filegenerator.GenerateFile;
+import org.library.filegenerator.RowWriter;
+import org.library.filereader.ReadFile;
+import org.library.filereader.RowHandler;
+import org.library.perf.TestCorpusGenerator.Shape;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Throughput and memory regression checks for {@link ReadFile} and
+ * {@link GenerateFile} over a generated corpus. Only run with the
+ * {@code performance} Maven profile:
+ *
+ * <pre>
+ * mvn test -Pperformance
+ * </pre>
+ *
+ * Machine speed varies too much between runs for absolute throughput to be
+ * compared with a stored value. Every measured run of an operation is paired
+ * with a run of a fixed reference workload, parsing the long CSV file with
+ * commons-csv alone, and the median ratio of the two times is the relative cost
+ * of the operation. Heap is measured as the live heap: the most heap still in
+ * use after any garbage collection during the run, or after a collection at its
+ * end while its result is still reachable, less the heap in use before it.
+ *
+ * Relative cost and live heap are compared with
+ * {@code perf/baseline.properties}. A check fails when either grows by more than
+ * the {@code perf.tolerance} fraction; live heap also gets
+ * {@value #HEAP_SLACK_MB} MB of slack for small operations. Run with
+ * {@code -Dperf.record=true} to write new baselines to
+ * {@code target/perf/baseline.properties} instead of checking. Rows per second
+ * are written next to them for information only.
+ */
+@Tag("performance")
+class FilePerformanceTest {
+
+	private static final long SEED = 20231019L;
+	private static final int RUNS = 5;
+	private static final int HEAP_SLACK_MB = 8;
+
+	@TempDir
+	static Path corpusDir;
+
+	private static final TestCorpusGenerator generator = new TestCorpusGenerator(SEED);
+	private static final ReadFile readFile = new ReadFile();
+	private static final GenerateFile generateFile = new GenerateFile();
+	private static final Map<String, String> measured = new TreeMap<>();
+	private static final LiveHeapMonitor liveHeapMonitor = new LiveHeapMonitor();
+	private static Properties baseline;
+	private static double tolerance;
+	private static boolean record;
+
+	@FunctionalInterface
+	interface Operation {
+
+		/**
+		 * Runs the measured operation.
+		 *
+		 * @return Result kept reachable until the live heap has been measured, or
+		 *         null.
+		 */
+		Object run() throws Exception;
+	}
+
+	/**
+	 * Records the heap in use right after each garbage collection, which leaves
+	 * out the garbage the collector had not reclaimed yet.
+	 */
+	private static final class LiveHeapMonitor implements NotificationListener {
+
+		private final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+				.filter(pool -> pool.getType() == MemoryType.HEAP).toList();
+		private final AtomicLong maxLiveHeap = new AtomicLong();
+		private final AtomicLong notifications = new AtomicLong();
+
+		void start() {
+			for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+				if (collector instanceof NotificationEmitter emitter) {
+					emitter.addNotificationListener(this, null, null);
+				}
+			}
+		}
+
+		void reset() {
+			maxLiveHeap.set(0);
+		}
+
+		long getMaxLiveHeap() {
+			return maxLiveHeap.get();
+		}
+
+		/**
+		 * Waits until the notifications of all collections counted so far have
+		 * been received, since they are delivered on another thread.
+		 */
+		void awaitCollections() throws InterruptedException {
+			long collections = collectionCount();
+			for (int wait = 0; wait < 1000 && notifications.get() < collections; wait++) {
+				Thread.sleep(1);
+			}
+		}
+
+		@Override
+		public void handleNotification(Notification notification, Object handback) {
+			if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+				return;
+			}
+			Map<String, MemoryUsage> afterGc = GarbageCollectionNotificationInfo
+					.from((CompositeData) notification.getUserData()).getGcInfo().getMemoryUsageAfterGc();
+			long liveHeap = 0;
+			for (MemoryPoolMXBean pool : heapPools) {
+				// Pools a young collection does not manage keep their current usage
+				MemoryUsage usage = afterGc.get(pool.getName());
+				liveHeap += (usage != null ? usage : pool.getUsage()).getUsed();
+			}
+			maxLiveHeap.accumulateAndGet(liveHeap, Math::max);
+			notifications.incrementAndGet();
+		}
+
+		private static long collectionCount() {
+			return ManagementFactory.getGarbageCollectorMXBeans().stream()
+					.filter(collector -> collector instanceof NotificationEmitter)
+					.mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+		}
+	}
+
+	@BeforeAll
+	static void setUp() throws IOException {
+		baseline = new Properties();
+		try (InputStream inputStream = FilePerformanceTest.class.getResourceAsStream("/perf/baseline.properties")) {
+			if (inputStream != null) {
+				baseline.load(inputStream);
+			}
+		}
+		tolerance = Double.parseDouble(System.getProperty("perf.tolerance", "0.30"));
+		record = Boolean.getBoolean("perf.record");
+		for (Shape shape : Shape.values()) {
+			generator.writeCsv(corpusFile(shape, "csv"), shape, shape.getDefaultRows(), shape.getDefaultColumns());
+			generator.writeXlsx(corpusFile(shape, "xlsx"), shape, shape.getDefaultRows(), shape.getDefaultColumns());
+		}
+		for (int run = 0; run < RUNS; run++) {
+			referenceWorkload();
+		}
+		liveHeapMonitor.start();
+	}
+
+	@AfterAll
+	static void writeMeasurements() throws IOException {
+		Path perfDir = Path.of("target", "perf");
+		Files.createDirectories(perfDir);
+		Properties properties = new Properties();
+		properties.putAll(measured);
+		String fileName = record ? "baseline.properties" : "measured.properties";
+		try (Writer writer = Files.newBufferedWriter(perfDir.resolve(fileName))) {
+			properties.store(writer, "Seed " + SEED + ", " + RUNS + " runs per operation, median run kept");
+		}
+	}
+
+	@TestFactory
+	Stream<DynamicTest> testReadFile() {
+		List<DynamicTest> tests = new ArrayList<>();
+		for (Shape shape : Shape.values()) {
+			Path csv = corpusFile(shape, "csv");
+			Path xlsx = corpusFile(shape, "xlsx");
+			tests.add(check(shape, "csv.read", () -> readFile.readFileFromPath(csv.toString())));
+			tests.add(check(shape, "xlsx.read", () -> readFile.readFileFromPath(xlsx.toString())));
+			tests.add(check(shape, "xlsx.stream", () -> {
+				List<String> columns = new ArrayList<>();
+				try (InputStream inputStream = new FileInputStream(xlsx.toFile())) {
+					readFile.readFileRows(inputStream, xlsx.toString(), new RowHandler() {
+						@Override
+						public void header(List<String> header) {
+							columns.addAll(header);
+						}
+
+						@Override
+						public void row(Map<String, Object> row) {
+							// Rows are discarded, only parsing is measured
+						}
+					});
+				}
+				return columns;
+			}));
+		}
+		return tests.stream();
+	}
+
+	@TestFactory
+	Stream<DynamicTest> testGenerateFile() {
+		List<DynamicTest> tests = new ArrayList<>();
+		for (Shape shape : Shape.values()) {
+			tests.add(check(shape, "csv.write", () -> writeRows(shape, "out.csv")));
+			tests.add(check(shape, "xlsx.write", () -> writeRows(shape, "out.xlsx")));
+		}
+		Shape shape = Shape.LONG;
+		List<Map<String, Object>> data = new ArrayList<>();
+		generator.rows(shape, shape.getDefaultRows(), shape.getDefaultColumns()).forEachRemaining(data::add);
+		tests.add(check(shape, "xlsx.response", () -> {
+			generateFile.generateResponse(nullResponse(), "out.xlsx", data);
+			return null;
+		}));
+		return tests.stream();
+	}
+
+	private static Path corpusFile(Shape shape, String extension) {
+		return corpusDir.resolve(shape.name().toLowerCase() + "." + extension);
+	}
+
+	/**
+	 * Parses the long CSV file with commons-csv alone. Its time tracks the speed
+	 * of the machine at the moment, and no code under test runs in it.
+	 */
+	private static List<List<String>> referenceWorkload() throws IOException {
+		List<List<String>> records = new ArrayList<>();
+		try (Reader reader = Files.newBufferedReader(corpusFile(Shape.LONG, "csv"), StandardCharsets.UTF_8);
+				CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT)) {
+			for (CSVRecord csvRecord : csvParser) {
+				records.add(csvRecord.toList());
+			}
+		}
+		return records;
+	}
+
+	private static Object writeRows(Shape shape, String fileName) throws IOException {
+		try (RowWriter rowWriter = generateFile.openRowWriter(OutputStream.nullOutputStream(), fileName)) {
+			Iterator<Map<String, Object>> rows = generator.rows(shape, shape.getDefaultRows(),
+					shape.getDefaultColumns());
+			rowWriter.writeHeader(generator.header(shape.getDefaultColumns()));
+			while (rows.hasNext()) {
+				rowWriter.writeRow(rows.next());
+			}
+		}
+		return null;
+	}
+
+	private static HttpServletResponse nullResponse() throws IOException {
+		HttpServletResponse response = mock(HttpServletResponse.class);
+		when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+			@Override
+			public void write(int b) {
+				// Output is discarded, only generation is measured
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+				// Output is discarded, only generation is measured
+			}
+
+			@Override
+			public boolean isReady() {
+				return true;
+			}
+
+			@Override
+			public void setWriteListener(WriteListener writeListener) {
+				// Not used for blocking writes
+			}
+		});
+		return response;
+	}
+
+	/**
+	 * Creates a test measuring an operation after a warm-up run and comparing the
+	 * median of the measured runs against the stored baseline.
+	 */
+	private static DynamicTest check(Shape shape, String operation, Operation body) {
+		String key = shape.name().toLowerCase() + "." + operation;
+		return DynamicTest.dynamicTest(key, () -> {
+			body.run();
+			double[] relativeCosts = new double[RUNS];
+			long[] nanos = new long[RUNS];
+			long[] liveHeaps = new long[RUNS];
+			for (int run = 0; run < RUNS; run++) {
+				long referenceStart = System.nanoTime();
+				referenceWorkload();
+				long referenceNanos = System.nanoTime() - referenceStart;
+
+				System.gc();
+				long heapBefore = usedHeap();
+				liveHeapMonitor.reset();
+				long start = System.nanoTime();
+				Object result = body.run();
+				nanos[run] = System.nanoTime() - start;
+				System.gc();
+				long heapAfter = usedHeap();
+				Reference.reachabilityFence(result);
+				liveHeapMonitor.awaitCollections();
+
+				relativeCosts[run] = (double) nanos[run] / referenceNanos;
+				liveHeaps[run] = Math.max(0, Math.max(heapAfter, liveHeapMonitor.getMaxLiveHeap()) - heapBefore);
+			}
+			Arrays.sort(relativeCosts);
+			Arrays.sort(nanos);
+			Arrays.sort(liveHeaps);
+			double relativeCost = relativeCosts[RUNS / 2];
+			long rowsPerSecond = shape.getDefaultRows() * 1_000_000_000L / nanos[RUNS / 2];
+			long liveHeapMb = liveHeaps[RUNS / 2] / (1024 * 1024);
+			measured.put(key + ".relativeCost", String.format(Locale.ROOT, "%.3f", relativeCost));
+			measured.put(key + ".liveHeapMb", Long.toString(liveHeapMb));
+			measured.put(key + ".rowsPerSecond", Long.toString(rowsPerSecond));
+			if (!record) {
+				assertWithinBaseline(key + ".relativeCost", relativeCost, 0);
+				assertWithinBaseline(key + ".liveHeapMb", liveHeapMb, HEAP_SLACK_MB);
+			}
+		});
+	}
+
+	private static long usedHeap() {
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+
+	private static void assertWithinBaseline(String key, double value, double slack) {
+		String stored = baseline.getProperty(key);
+		if (stored == null) {
+			return;
+		}
+		double expected = Double.parseDouble(stored);
+		double maximum = Math.max(expected * (1 + tolerance), expected + slack);
+		assertTrue(value <= maximum, key + " regressed: " + value + " > " + maximum + " (baseline " + expected + ")");
+	}
+}
@@ -0,0 +1,250 @@
+package org.library.perf;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Generates deterministic CSV and XLSX files of configurable size and shape for
+ * performance tests. The same seed, shape and size always produce the same
+ * content. Files are written with commons-csv and POI directly so that the
+ * corpus does not depend on the code under test.
+ */
+public class TestCorpusGenerator {
+
+	/**
+	 * Shapes of generated files, with their default size.
+	 */
+	public enum Shape {
+		/** Few rows with many columns. */
+		WIDE(2_000, 200),
+		/** Many rows with few columns. */
+		LONG(30_000, 10),
+		/** Text cells containing quotes, commas and line breaks. */
+		QUOTED_NEWLINES(10_000, 8),
+		/** Every third column holds a formula referencing the first column. */
+		FORMULAS(10_000, 9),
+		/** About four out of five cells are empty. */
+		SPARSE(10_000, 50);
+
+		private final int defaultRows;
+		private final int defaultColumns;
+
+		Shape(int defaultRows, int defaultColumns) {
+			this.defaultRows = defaultRows;
+			this.defaultColumns = defaultColumns;
+		}
+
+		public int getDefaultRows() {
+			return defaultRows;
+		}
+
+		public int getDefaultColumns() {
+			return defaultColumns;
+		}
+	}
+
+	private static final String[] STATUSES = { "ACTIVE", "INACTIVE", "PENDING", "CLOSED" };
+	private static final String[] COUNTRIES = { "New Zealand", "Australia", "United States", "United Kingdom",
+			"France", "Germany", "Japan", "Brazil" };
+	private static final String[] WORDS = { "alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf",
+			"hotel", "india", "juliett", "kilo", "lima" };
+	private static final LocalDate START_DATE = LocalDate.of(2020, 1, 1);
+
+	private final long seed;
+
+	public TestCorpusGenerator(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Returns the header of a generated file.
+	 *
+	 * @param columns Number of columns.
+	 * @return Column headers in file order.
+	 */
+	public List<String> header(int columns) {
+		List<String> header = new ArrayList<>(columns);
+		for (int column = 0; column < columns; column++) {
+			header.add("COLUMN_" + (column + 1));
+		}
+		return header;
+	}
+
+	/**
+	 * Returns the generated rows one at a time, keyed by camel case column name.
+	 * Formula cells are returned as their formula text.
+	 *
+	 * @param shape   Shape of the data.
+	 * @param rows    Number of data rows.
+	 * @param columns Number of columns.
+	 * @return Iterator over freshly built rows.
+	 */
+	public Iterator<Map<String, Object>> rows(Shape shape, int rows, int columns) {
+		Random random = new Random(seed);
+		List<String> keys = new ArrayList<>(columns);
+		for (int column = 0; column < columns; column++) {
+			keys.add("column" + (column + 1));
+		}
+		return new Iterator<>() {
+			private int rowIndex;
+
+			@Override
+			public boolean hasNext() {
+				return rowIndex < rows;
+			}
+
+			@Override
+			public Map<String, Object> next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				Map<String, Object> row = new LinkedHashMap<>();
+				for (int column = 0; column < columns; column++) {
+					Object value = cellValue(random, shape, rowIndex, column);
+					row.put(keys.get(column), value instanceof Formula formula ? formula.text : value);
+				}
+				rowIndex++;
+				return row;
+			}
+		};
+	}
+
+	/**
+	 * Writes a CSV file with a header row and the requested number of data rows.
+	 *
+	 * @param file    Path of the file to write.
+	 * @param shape   Shape of the data.
+	 * @param rows    Number of data rows.
+	 * @param columns Number of columns.
+	 * @return The written file.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public Path writeCsv(Path file, Shape shape, int rows, int columns) throws IOException {
+		Random random = new Random(seed);
+		try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+				CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT)) {
+			csvPrinter.printRecord(header(columns));
+			for (int rowIndex = 0; rowIndex < rows; rowIndex++) {
+				for (int column = 0; column < columns; column++) {
+					Object value = cellValue(random, shape, rowIndex, column);
+					csvPrinter.print(value instanceof Formula formula ? formula.text : value);
+				}
+				csvPrinter.println();
+			}
+		}
+		return file;
+	}
+
+	/**
+	 * Writes an XLSX file with a header row and the requested number of data rows.
+	 * Formula cells are written with their cached result.
+	 *
+	 * @param file    Path of the file to write.
+	 * @param shape   Shape of the data.
+	 * @param rows    Number of data rows.
+	 * @param columns Number of columns.
+	 * @return The written file.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public Path writeXlsx(Path file, Shape shape, int rows, int columns) throws IOException {
+		Random random = new Random(seed);
+		SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+		try (OutputStream outputStream = Files.newOutputStream(file)) {
+			Sheet sheet = workbook.createSheet("Data");
+			Row headerRow = sheet.createRow(0);
+			List<String> header = header(columns);
+			for (int column = 0; column < columns; column++) {
+				headerRow.createCell(column).setCellValue(header.get(column));
+			}
+			for (int rowIndex = 0; rowIndex < rows; rowIndex++) {
+				Row row = sheet.createRow(rowIndex + 1);
+				for (int column = 0; column < columns; column++) {
+					writeXlsxCell(row, column, cellValue(random, shape, rowIndex, column));
+				}
+			}
+			workbook.write(outputStream);
+		} finally {
+			workbook.dispose();
+			workbook.close();
+		}
+		return file;
+	}
+
+	private void writeXlsxCell(Row row, int column, Object value) {
+		if ("".equals(value)) {
+			return;
+		}
+		Cell cell = row.createCell(column);
+		if (value instanceof Formula formula) {
+			cell.setCellFormula(formula.text.substring(1));
+			cell.setCellValue(formula.result);
+		} else if (value instanceof Number number) {
+			cell.setCellValue(number.doubleValue());
+		} else {
+			cell.setCellValue(value.toString());
+		}
+	}
+
+	/**
+	 * Produces the value of a cell. Values only depend on the random sequence, so
+	 * the CSV and XLSX files of the same seed hold the same data.
+	 */
+	private Object cellValue(Random random, Shape shape, int rowIndex, int column) {
+		if (shape == Shape.SPARSE && column > 0 && random.nextInt(5) != 0) {
+			return "";
+		}
+		if (shape == Shape.FORMULAS && column % 3 == 2) {
+			int id = rowIndex + 1;
+			return new Formula("=" + CellReference.convertNumToColString(0) + (rowIndex + 2) + "*2", id * 2.0);
+		}
+		switch (column % 6) {
+		case 0:
+			return rowIndex + 1;
+		case 1:
+			return Math.round(random.nextDouble() * 100_000) / 100.0;
+		case 2:
+			return STATUSES[random.nextInt(STATUSES.length)];
+		case 3:
+			return COUNTRIES[random.nextInt(COUNTRIES.length)];
+		case 4:
+			return START_DATE.plusDays(random.nextInt(1_500)).toString();
+		default:
+			return text(random, shape);
+		}
+	}
+
+	private String text(Random random, Shape shape) {
+		String first = WORDS[random.nextInt(WORDS.length)];
+		String second = WORDS[random.nextInt(WORDS.length)];
+		if (shape == Shape.QUOTED_NEWLINES) {
+			return first + ", \"" + second + "\"\n" + WORDS[random.nextInt(WORDS.length)];
+		}
+		return first + " " + second;
+	}
+
+	/**
+	 * Formula text together with its pre-computed result.
+	 */
+	private record Formula(String text, double result) {
+	}
+}
@@ -0,0 +1,36 @@
+package org.library.utility;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class HyperLogLogTest {
+
+	@Test
+	void testEstimateWithRepeatedValues() {
+		HyperLogLog sketch = new HyperLogLog();
+		for (int i = 0; i < 10000; i++) {
+			sketch.add("value" + (i % 50));
+		}
+
+		long estimate = sketch.estimate();
+		assertTrue(Math.abs(estimate - 50) <= 2, "Estimate " + estimate);
+	}
+
+	@Test
+	void testEstimateWithManyDistinctValues() {
+		HyperLogLog sketch = new HyperLogLog();
+		for (int i = 0; i < 100000; i++) {
+			sketch.add(Integer.toString(i));
+		}
+
+		long estimate = sketch.estimate();
+		assertTrue(Math.abs(estimate - 100000) < 10000, "Estimate " + estimate);
+	}
+
+	@Test
+	void testInvalidPrecision() {
+		assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(20));
+	}
+}